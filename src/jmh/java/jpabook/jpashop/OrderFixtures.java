@@ -0,0 +1,107 @@
+package jpabook.jpashop;
+
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.repository.order.query.OrderFlatDto;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 메모리 데이터(DB 없음)
+ * 주문 1건당 주문상품 ITEMS_PER_ORDER개, 회원/상품은 일정 수를 돌려 씀
+ */
+public class OrderFixtures {
+
+    public static final int ITEMS_PER_ORDER = 2;
+    private static final int MEMBERS = 1_000;
+    private static final int ITEMS = 100;
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private OrderFixtures() {
+    }
+
+    //v1~v3 : 엔티티 그래프(프록시 없이 모두 로딩된 상태)
+    public static List<Order> orders(int count) {
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setId((long) i + 1);
+            member.setName("member" + i);
+            member.setAddress(address(i));
+            members.add(member);
+        }
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setName("book" + i);
+            book.setPrice(10_000 + i);
+            book.setStockQuantity(Integer.MAX_VALUE);
+            items.add(book);
+        }
+
+        List<Order> orders = new ArrayList<>(count);
+        long orderItemId = 1;
+        for (int i = 0; i < count; i++) {
+            Member member = members.get(i % MEMBERS);
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setAddress(member.getAddress());
+            delivery.setStatus(DeliveryStatus.READY);
+
+            OrderItem[] orderItems = new OrderItem[ITEMS_PER_ORDER];
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                Item item = items.get((i + j) % ITEMS);
+                orderItems[j] = OrderItem.createReservedOrderItem(item, item.getPrice(), j + 1);
+                orderItems[j].setId(orderItemId++);
+            }
+            Order order = Order.createOrder(member, delivery, orderItems);
+            order.setId((long) i + 1);
+            order.setOrderDate(BASE_DATE.plusSeconds(i));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    //v6 : 주문 id, 주문상품 id 순으로 정렬된 플랫 조인 결과
+    public static List<OrderFlatDto> flatRows(List<Order> orders) {
+        List<OrderFlatDto> rows = new ArrayList<>(orders.size() * ITEMS_PER_ORDER);
+        for (Order o : orders) {
+            for (OrderItem oi : o.getOrderItems()) {
+                rows.add(new OrderFlatDto(o.getId(), o.getMember().getName(), o.getOrderDate(), o.getStatus(),
+                        o.getDelivery().getAddress(), oi.getItem().getName(), oi.getOrderPrice(), oi.getCount()));
+            }
+        }
+        return rows;
+    }
+
+    //v5 : 주문(ToOne) 조회 결과(주문상품 비어 있음)
+    public static List<OrderQueryDto> orderRows(List<Order> orders) {
+        List<OrderQueryDto> rows = new ArrayList<>(orders.size());
+        for (Order o : orders) {
+            rows.add(new OrderQueryDto(o.getId(), o.getMember().getName(), o.getOrderDate(), o.getStatus(),
+                    o.getDelivery().getAddress()));
+        }
+        return rows;
+    }
+
+    //v5 : 주문상품 IN 조회 결과
+    public static List<OrderItemQueryDto> orderItemRows(List<Order> orders) {
+        List<OrderItemQueryDto> rows = new ArrayList<>(orders.size() * ITEMS_PER_ORDER);
+        for (Order o : orders) {
+            for (OrderItem oi : o.getOrderItems()) {
+                rows.add(new OrderItemQueryDto(o.getId(), oi.getItem().getName(), oi.getOrderPrice(), oi.getCount()));
+            }
+        }
+        return rows;
+    }
+
+    private static Address address(int i) {
+        return new Address("city" + (i % 10), "street" + i, String.format("%05d", i));
+    }
+}
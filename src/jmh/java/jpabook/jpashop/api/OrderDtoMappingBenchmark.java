@@ -0,0 +1,37 @@
+package jpabook.jpashop.api;
+
+import jpabook.jpashop.OrderFixtures;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.service.query.OrderDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티 -> DTO 변환 비용(v2, v3, v3.1, v3.2 : service.query.OrderDto)
+ * 엔티티는 모두 로딩된 상태 -> 쿼리/지연 로딩 없이 변환 자체의 CPU, 할당량만 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderDtoMappingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int orders;
+
+    private List<Order> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = OrderFixtures.orders(orders);
+    }
+
+    @Benchmark
+    public List<OrderDto> orderDto() {
+        return entities.stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList());
+    }
+}
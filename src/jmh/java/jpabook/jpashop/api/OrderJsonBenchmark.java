@@ -0,0 +1,75 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jpabook.jpashop.OrderFixtures;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.service.query.OrderDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 응답 JSON 직렬화 비용(스프링 부트 기본 설정과 같은 ObjectMapper)
+ * 출력은 버리는 스트림 -> 네트워크/버퍼 복사 제외
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderJsonBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int orders;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private List<OrderDto> orderDtos;
+    private List<OrderQueryDto> orderQueryDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = objectMapper.writer();
+
+        List<Order> entities = OrderFixtures.orders(orders);
+        orderDtos = entities.stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList());
+        orderQueryDtos = OrderFlatAssembler.assemble(OrderFixtures.flatRows(entities));
+    }
+
+    //v2, v3, v3.1, v3.2
+    @Benchmark
+    public void orderDto() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), orderDtos);
+    }
+
+    //v4 ~ v6
+    @Benchmark
+    public void orderQueryDto() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), orderQueryDtos);
+    }
+
+    //v6 스트리밍 : OrderJsonWriter로 직접 씀(/api/v6/orders/stream)
+    @Benchmark
+    public void orderQueryDtoStreaming() throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            gen.writeStartArray();
+            for (OrderQueryDto order : orderQueryDtos) {
+                OrderJsonWriter.write(gen, order);
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package jpabook.jpashop.inventory;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 인기 상품 1개에 동시 예약 처리량(예약 1개 + 반환 1개, 재고 수준은 그대로 유지)
+ * striped : StripedStock(버킷 8개, 스레드마다 자기 버킷에서 CAS)
+ * single  : AtomicInteger 하나에 CAS(모든 스레드가 같은 캐시 라인에서 경합)
+ * 스레드 1, 8, 64개 비교 : ./gradlew jmh -PjmhIncludes=StripedStock
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StripedStockBenchmark {
+
+    private static final int STOCK = 1_000_000;
+
+    private StripedStock striped;
+    private AtomicInteger single;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        striped = new StripedStock(STOCK, 8);
+        single = new AtomicInteger(STOCK);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean striped_1() {
+        return reserveStriped();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean striped_8() {
+        return reserveStriped();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean striped_64() {
+        return reserveStriped();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean single_1() {
+        return reserveSingle();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean single_8() {
+        return reserveSingle();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean single_64() {
+        return reserveSingle();
+    }
+
+    private boolean reserveStriped() {
+        boolean reserved = striped.tryReserve(1);
+        if (reserved) {
+            striped.release(1);
+        }
+        return reserved;
+    }
+
+    private boolean reserveSingle() {
+        while (true) {
+            int current = single.get();
+            if (current < 1) {
+                return false;
+            }
+            if (single.compareAndSet(current, current - 1)) {
+                single.incrementAndGet();
+                return true;
+            }
+        }
+    }
+}
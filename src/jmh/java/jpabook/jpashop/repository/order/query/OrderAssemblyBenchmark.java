@@ -0,0 +1,54 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.OrderFixtures;
+import jpabook.jpashop.domain.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 조회 결과 행 -> OrderQueryDto 조립 비용
+ * v6   : 플랫 행을 groupingBy로 다시 묶음(OrderFlatAssembler.groupByOrder)
+ * v6.1 : id 순 플랫 행을 한 번 훑으며 접음(OrderFlatAssembler.assemble)
+ * v5   : 주문상품을 주문 id로 맵에 묶고 주문에 붙임(OrderQueryRepository.findAllByDto_optimization)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderAssemblyBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int orders;
+
+    private List<OrderFlatDto> flatRows;
+    private List<OrderQueryDto> orderRows;
+    private List<OrderItemQueryDto> orderItemRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Order> entities = OrderFixtures.orders(orders);
+        flatRows = OrderFixtures.flatRows(entities);
+        orderRows = OrderFixtures.orderRows(entities);
+        orderItemRows = OrderFixtures.orderItemRows(entities);
+    }
+
+    @Benchmark
+    public List<OrderQueryDto> v6GroupingBy() {
+        return OrderFlatAssembler.groupByOrder(flatRows);
+    }
+
+    @Benchmark
+    public List<OrderQueryDto> v6SinglePass() {
+        return OrderFlatAssembler.assemble(flatRows);
+    }
+
+    //주문 DTO에 setOrderItems로 덮어씀 -> 반복 실행해도 결과 동일
+    @Benchmark
+    public List<OrderQueryDto> v5MapStitching() {
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = OrderItemLoader.groupByOrderId(orderItemRows);
+        orderRows.forEach(o -> o.setOrderItems(orderItemMap.getOrDefault(o.getOrderId(), List.of())));
+        return orderRows;
+    }
+}
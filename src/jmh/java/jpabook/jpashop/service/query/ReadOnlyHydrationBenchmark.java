@@ -0,0 +1,184 @@
+package jpabook.jpashop.service.query;
+
+import jpabook.jpashop.OrderFixtures;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Album;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.domain.item.Movie;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티 조회 + DTO 변환 + 트랜잭션 종료 비용(v3 쿼리, H2 메모리 DB)
+ * managed         : 일반 세션 -> 엔티티마다 스냅샷(로딩 시점 값 복사), 커밋 전 flush에서 전체 dirty checking
+ * readOnlySession : 기본 읽기 전용 + FlushMode.MANUAL(@Transactional(readOnly = true)일 때 스프링이 하는 설정) -> 스냅샷, flush 없음
+ * stateless       : 영속성 컨텍스트 없음 -> 스냅샷, flush, 지연 로딩 모두 없음(필요한 연관은 fetch join으로)
+ * -prof gc(build.gradle jmh 설정)의 gc.alloc.rate.norm으로 스냅샷 할당량 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadOnlyHydrationBenchmark {
+
+    //OrderRepository.findAllWithItem과 같은 쿼리
+    private static final String QUERY = "select distinct o from Order o" +
+            " join fetch o.member m" +
+            " join fetch o.delivery d" +
+            " join fetch o.orderItems oi" +
+            " join fetch oi.item i";
+
+    @Param({"100000"})
+    private int orders;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:hydration;DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(Member.class, Order.class, OrderItem.class, Delivery.class, Category.class,
+                        Item.class, Book.class, Album.class, Movie.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        insert(OrderFixtures.orders(orders));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<OrderDto> managed() {
+        return inTransaction(false);
+    }
+
+    @Benchmark
+    public List<OrderDto> readOnlySession() {
+        return inTransaction(true);
+    }
+
+    @Benchmark
+    public List<OrderDto> stateless() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return toDtos(session.createSelectionQuery(QUERY, Order.class).getResultList());
+        }
+    }
+
+    private List<OrderDto> inTransaction(boolean readOnly) {
+        try (Session session = sessionFactory.openSession()) {
+            if (readOnly) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            Transaction tx = session.beginTransaction();
+            List<OrderDto> result = toDtos(session.createSelectionQuery(QUERY, Order.class).getResultList());
+            tx.commit(); //managed : 커밋 전 flush에서 로딩한 엔티티 전체를 스냅샷과 비교
+            return result;
+        }
+    }
+
+    private static List<OrderDto> toDtos(List<Order> orders) {
+        return orders.stream()
+                .map(OrderDto::new)
+                .collect(Collectors.toList());
+    }
+
+    //픽스처 엔티티 그래프를 JDBC 배치로 적재(id는 픽스처 값 그대로)
+    private void insert(List<Order> fixture) {
+        Map<Long, Member> members = new LinkedHashMap<>();
+        Map<Long, Item> items = new LinkedHashMap<>();
+        for (Order order : fixture) {
+            members.putIfAbsent(order.getMember().getId(), order.getMember());
+            order.getOrderItems().forEach(oi -> items.putIfAbsent(oi.getItem().getId(), oi.getItem()));
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(connection -> {
+                connection.setAutoCommit(false);
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)")) {
+                    for (Member member : members.values()) {
+                        ps.setLong(1, member.getId());
+                        ps.setString(2, member.getName());
+                        ps.setString(3, member.getAddress().getCity());
+                        ps.setString(4, member.getAddress().getStreet());
+                        ps.setString(5, member.getAddress().getZipcode());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "insert into item (item_id, dtype, name, price, stock_quantity, version) values (?, 'B', ?, ?, ?, 0)")) {
+                    for (Item item : items.values()) {
+                        ps.setLong(1, item.getId());
+                        ps.setString(2, item.getName());
+                        ps.setInt(3, item.getPrice());
+                        ps.setInt(4, item.getStockQuantity());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement delivery = connection.prepareStatement(
+                        "insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, ?)");
+                     PreparedStatement order = connection.prepareStatement(
+                             "insert into orders (order_id, member_id, delivery_id, order_date, status, version) values (?, ?, ?, ?, ?, 0)");
+                     PreparedStatement orderItem = connection.prepareStatement(
+                             "insert into order_item (order_item_id, order_id, item_id, order_price, count, stock_applied) values (?, ?, ?, ?, ?, true)")) {
+                    for (Order o : fixture) {
+                        Delivery d = o.getDelivery();
+                        delivery.setLong(1, d.getId());
+                        delivery.setString(2, d.getAddress().getCity());
+                        delivery.setString(3, d.getAddress().getStreet());
+                        delivery.setString(4, d.getAddress().getZipcode());
+                        delivery.setString(5, d.getStatus().name());
+                        delivery.addBatch();
+
+                        order.setLong(1, o.getId());
+                        order.setLong(2, o.getMember().getId());
+                        order.setLong(3, d.getId());
+                        order.setTimestamp(4, Timestamp.valueOf(o.getOrderDate()));
+                        order.setString(5, o.getStatus().name());
+                        order.addBatch();
+
+                        for (OrderItem oi : o.getOrderItems()) {
+                            orderItem.setLong(1, oi.getId());
+                            orderItem.setLong(2, o.getId());
+                            orderItem.setLong(3, oi.getItem().getId());
+                            orderItem.setInt(4, oi.getOrderPrice());
+                            orderItem.setInt(5, oi.getCount());
+                            orderItem.addBatch();
+                        }
+                    }
+                    delivery.executeBatch();
+                    order.executeBatch();
+                    orderItem.executeBatch();
+                }
+                connection.commit();
+            });
+        }
+    }
+}
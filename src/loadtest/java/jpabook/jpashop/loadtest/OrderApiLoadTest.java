@@ -0,0 +1,130 @@
+package jpabook.jpashop.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 주문 API 부하 테스트(closed loop)
+ * 클라이언트 concurrency개가 응답을 받자마자 다음 요청을 보냄 -> 처리량(req/s)과 지연 시간 분위수 출력
+ *
+ * 비교 방법(같은 데이터, 같은 커넥션 풀 크기)
+ * 1. 플랫폼 스레드 : ./gradlew bootRun
+ * 2. 가상 스레드   : ./gradlew bootRun --args='--spring.profiles.active=virtual'
+ * 각각 ./gradlew loadTest -Pconcurrency=200 -Pduration=30 실행 후 p99, 503 비율 비교
+ */
+public class OrderApiLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        List<String> paths = Arrays.asList((args.length > 3 ? args[3] : "/api/v3.1/orders?limit=100").split(","));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("baseUrl=%s, concurrency=%d, duration=%ds, warmup=%ds%n",
+                baseUrl, concurrency, duration.toSeconds(), WARMUP.toSeconds());
+
+        for (String path : paths) {
+            Stats stats = run(client, URI.create(baseUrl + path), concurrency, duration);
+            stats.print(path, duration);
+        }
+    }
+
+    private static Stats run(HttpClient client, URI uri, int concurrency, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Future<Stats>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    Stats stats = new Stats();
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        if (now >= measureFrom) {
+                            stats.record(System.nanoTime() - now, status);
+                        }
+                    }
+                    return stats;
+                }));
+            }
+        }
+
+        Stats total = new Stats();
+        for (Future<Stats> future : futures) {
+            total.merge(future.get());
+        }
+        return total;
+    }
+
+    private static class Stats {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long ok;
+        private long rejected; //503(bulkhead)
+        private long errors;
+
+        void record(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (status >= 200 && status < 300) {
+                ok++;
+            } else if (status == 503) {
+                rejected++;
+            } else {
+                errors++;
+            }
+        }
+
+        void merge(Stats other) {
+            latencies = Arrays.copyOf(latencies, size + other.size);
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            ok += other.ok;
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        void print(String path, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            System.out.printf("%s%n  requests=%d, ok/s=%.1f, 503=%d, errors=%d%n" +
+                            "  p50=%.1fms, p90=%.1fms, p99=%.1fms, max=%.1fms%n",
+                    path, size, ok / (double) duration.toSeconds(), rejected, errors,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
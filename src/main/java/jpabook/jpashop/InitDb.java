@@ -1,21 +1,33 @@
 package jpabook.jpashop;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.*;
+import jpabook.jpashop.datagen.DataGenProperties;
+import jpabook.jpashop.datagen.DataGenerator;
 import jpabook.jpashop.domain.item.Book;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+//@PostConstruct가 아니라 컨텍스트가 다 뜬 뒤(ApplicationRunner)에 실행
+//-> 대용량 생성이 빈 초기화를 붙잡지 않고, 트랜잭션/스케줄러 등 모든 빈이 준비된 상태에서 적재
 @Component
 @RequiredArgsConstructor
-public class InitDb {
+public class InitDb implements ApplicationRunner {
 
     private final InitService initService;
-
-    @PostConstruct
-    public void init(){
+    private final DataGenProperties dataGenProperties;
+    private final DataGenerator dataGenerator;
+
+    @Override
+    public void run(ApplicationArguments args){
+        //jpashop.datagen.enabled=true면 운영 규모 데이터 생성(샘플 2건 대신)
+        if (dataGenProperties.isEnabled()) {
+            dataGenerator.generate();
+            return;
+        }
         initService.dbInit1();
         initService.dbInit2();
     }
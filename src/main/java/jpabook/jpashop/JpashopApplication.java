@@ -1,11 +1,17 @@
 package jpabook.jpashop;
 
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class JpashopApplication {
 
     public static void main(String[] args) {
@@ -18,4 +24,9 @@ public class JpashopApplication {
 //        hibernate6Module.configure(Hibernate6Module.Feature.FORCE_LAZY_LOADING, true);
         return hibernate6Module;
     }
+
+    @Bean
+    JPAQueryFactory jpaQueryFactory(EntityManager em) {
+        return new JPAQueryFactory(em);
+    }
 }
@@ -1,14 +1,31 @@
 package jpabook.jpashop.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
+import jpabook.jpashop.change.ConditionalGet;
+import jpabook.jpashop.change.TrackedResource;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import jpabook.jpashop.monitoring.QueryBudget;
+import jpabook.jpashop.repository.MemberSummary;
+import jpabook.jpashop.service.MemberImportResult;
+import jpabook.jpashop.service.MemberImportService;
 import jpabook.jpashop.service.MemberService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,14 +33,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MemberApiController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final MemberService memberService;
+    private final MemberImportService memberImportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/api/v1/members")
     public List<Member> membersV1(){
         return memberService.findMembers();
     }
 
+    //회원이 바뀌지 않았으면 조회 없이 304
     @GetMapping("/api/v2/members")
+    @ConditionalGet(TrackedResource.MEMBERS)
     public Result memberV2(){
         List<Member> findMembers = memberService.findMembers();
         List<MemberDto> collect = findMembers.stream()
@@ -32,6 +55,40 @@ public class MemberApiController {
         return new Result(collect);
     }
 
+    //키셋 페이징 + 프로젝션 : id, name 컬럼만 limit개 조회(엔티티 로딩/스냅샷 없음)
+    //회원 수와 무관하게 페이지 크기만큼만 읽음, 다음 페이지는 nextCursor(마지막 id) 다음부터
+    @GetMapping("/api/v3/members")
+    @QueryBudget(1)
+    @ConditionalGet(TrackedResource.MEMBERS)
+    public MemberPage<MemberDto> memberV3(
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit){
+        checkLimit(limit);
+        List<MemberSummary> members = memberService.findMemberPage(cursor, limit);
+        List<MemberDto> collect = members.stream()
+                .map(m -> new MemberDto(m.getName()))
+                .collect(Collectors.toList());
+
+        //마지막 페이지면 다음 커서 없음
+        Long nextCursor = members.isEmpty() || members.size() < limit ? null
+                : members.get(members.size() - 1).getId();
+        return new MemberPage<>(collect, nextCursor);
+    }
+
+    //페이지 크기는 1 ~ MAX_PAGE_SIZE, 벗어나면 400(다른 페이징 API와 같이 조용히 보정하지 않음)
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("limit은 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다.");
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class MemberPage<T>{
+        private List<T> data;
+        private Long nextCursor;
+    }
+
     @Data
     @AllArgsConstructor
     static class Result<T>{
@@ -59,6 +116,58 @@ public class MemberApiController {
         return new CreateMemberResponse(id);
     }
 
+    //대량 회원 가져오기(CSV 또는 NDJSON 업로드)
+    //입력을 읽으면서 1000행마다 저장하고, 응답으로 청크마다 진행 상황/거절 행을 NDJSON 한 줄씩 바로 보냄
+    //{"type":"progress",...} {"type":"reject",...} ... 마지막에 {"type":"done",...}
+    //청크마다 같은 모양의 쿼리가 반복되는 것이 정상 -> N+1 검사 제외
+    @PostMapping(value = "/api/v2/members/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @QueryBudget(detectRepeats = false)
+    public void importMembersV2(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        MemberImportReader rows = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? MemberImportReader.ndjson(reader, objectMapper)
+                : MemberImportReader.csv(reader);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            gen.setRootValueSeparator(null);
+            MemberImportResult progress = new MemberImportResult();
+            MemberImportResult total = memberImportService.importMembers(rows, chunk -> {
+                progress.add(chunk);
+                try {
+                    for (MemberImportResult.Reject reject : chunk.getRejects()) {
+                        gen.writeStartObject();
+                        gen.writeStringField("type", "reject");
+                        gen.writeNumberField("line", reject.getLine());
+                        gen.writeStringField("name", reject.getName());
+                        gen.writeStringField("reason", reject.getReason());
+                        gen.writeEndObject();
+                        gen.writeRaw('\n');
+                    }
+                    writeSummary(gen, "progress", progress);
+                    gen.flush(); //청크마다 클라이언트로 전송
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writeSummary(gen, "done", total);
+        }
+    }
+
+    private static void writeSummary(JsonGenerator gen, String type, MemberImportResult result) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("type", type);
+        gen.writeNumberField("read", result.getRead());
+        gen.writeNumberField("imported", result.getImported());
+        gen.writeNumberField("rejected", result.getRejected());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
     @PutMapping("/api/v2/members/{id}")
     public UpdateMemberResponse updateMemberV2(
             @PathVariable("id") Long id,
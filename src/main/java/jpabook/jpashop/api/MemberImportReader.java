@@ -0,0 +1,148 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.service.MemberImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 회원 가져오기 입력을 한 줄씩 읽어 행으로 변환(전체를 메모리에 올리지 않음)
+ * CSV    : name,city,street,zipcode (첫 줄의 첫 필드가 name이면 헤더로 보고 건너뜀, "..." 안의 쉼표/"" 허용)
+ * NDJSON : {"name":..,"city":..,"street":..,"zipcode":..} 한 줄에 1명
+ * 빈 줄은 건너뛰고, 형식이 잘못된 줄은 error가 있는 행으로 넘김(가져오기를 멈추지 않음)
+ */
+final class MemberImportReader implements Iterator<MemberImportRow> {
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private final ObjectMapper objectMapper;
+
+    private long lineNumber;
+    private MemberImportRow next;
+
+    private MemberImportReader(BufferedReader reader, boolean csv, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.csv = csv;
+        this.objectMapper = objectMapper;
+    }
+
+    static MemberImportReader csv(BufferedReader reader) {
+        return new MemberImportReader(reader, true, null);
+    }
+
+    static MemberImportReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new MemberImportReader(reader, false, objectMapper);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public MemberImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MemberImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private MemberImportRow readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csv && lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                return csv ? parseCsv(line) : parseJson(line);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //첫 필드가 정확히 name일 때만 헤더(Nami 같은 이름으로 시작하는 헤더 없는 파일의 첫 행을 버리지 않음)
+    private static boolean isHeader(String line) {
+        List<String> fields = splitCsv(line);
+        return fields != null && fields.get(0).strip().equalsIgnoreCase("name");
+    }
+
+    private MemberImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null || fields.size() > 4) {
+            return MemberImportRow.invalid(lineNumber, "CSV 형식 오류");
+        }
+        MemberImportRow row = new MemberImportRow();
+        row.setLine(lineNumber);
+        row.setName(field(fields, 0));
+        row.setCity(field(fields, 1));
+        row.setStreet(field(fields, 2));
+        row.setZipcode(field(fields, 3));
+        return row;
+    }
+
+    private MemberImportRow parseJson(String line) {
+        try {
+            MemberImportRow row = objectMapper.readValue(line, MemberImportRow.class);
+            row.setLine(lineNumber);
+            row.setError(null);
+            return row;
+        } catch (JsonProcessingException e) {
+            return MemberImportRow.invalid(lineNumber, "JSON 형식 오류");
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    //따옴표가 닫히지 않으면 null
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
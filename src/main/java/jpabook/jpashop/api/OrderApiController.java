@@ -1,23 +1,43 @@
 package jpabook.jpashop.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jpabook.jpashop.change.ConditionalGet;
+import jpabook.jpashop.change.TrackedResource;
 import jpabook.jpashop.domain.*;
+import jpabook.jpashop.exception.InvalidOrderRequestException;
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import jpabook.jpashop.exception.OrderQueueFullException;
+import jpabook.jpashop.intake.OrderIntake;
+import jpabook.jpashop.intake.OrderTicket;
+import jpabook.jpashop.monitoring.QueryBudget;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
 import jpabook.jpashop.repository.order.query.OrderFlatDto;
-import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryDto;
 import jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jpabook.jpashop.service.BulkCancelResult;
+import jpabook.jpashop.service.BulkOrderCommand;
+import jpabook.jpashop.service.BulkOrderResult;
+import jpabook.jpashop.service.BulkOrderService;
+import jpabook.jpashop.service.query.OrderDto;
 import jpabook.jpashop.service.query.OrderQueryService;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static java.util.stream.Collectors.*;
 
 /*
 <<컬렉션 패치 조인>>
@@ -28,35 +48,180 @@ import static java.util.stream.Collectors.*;
 @RequiredArgsConstructor
 public class OrderApiController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    //지연 로딩 컬렉션을 IN 조회하는 페이지(v3.1, v3.2)는 default_batch_fetch_size 이하
+    //-> 연관마다 IN 조회 1번으로 끝나서 @QueryBudget이 페이지 크기와 무관하게 고정
+    private static final int MAX_BATCHED_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final BulkOrderService bulkOrderService;
+    private final OrderIntake orderIntake;
+
+    //대량 주문
+    //청크 단위 트랜잭션, 회원/상품 IN절 조회, JDBC 배치 insert
+    //주문별 실패(재고 부족 등)는 전체를 롤백하지 않고 failures로 보고
+    @PostMapping("/api/v1/orders/bulk")
+    public BulkOrderResult bulkOrder(@RequestBody @Valid BulkOrderRequest request) {
+        return bulkOrderService.order(request.getOrders());
+    }
+
+    @Data
+    static class BulkOrderRequest {
+        @NotEmpty
+        private List<BulkOrderCommand> orders;
+    }
+
+    //비동기 주문 접수 : 대기열에 넣고 바로 티켓 반환(202), 결과는 티켓으로 조회
+    @PostMapping("/api/v1/orders/async")
+    public ResponseEntity<OrderTicket> orderAsync(@RequestBody BulkOrderCommand command) {
+        OrderTicket ticket = orderIntake.submit(command);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/v1/orders/tickets/" + ticket.getTicketId())
+                .body(ticket);
+    }
+
+    @GetMapping("/api/v1/orders/tickets/{ticketId}")
+    public ResponseEntity<OrderTicket> orderTicket(@PathVariable("ticketId") String ticketId) {
+        OrderTicket ticket = orderIntake.findTicket(ticketId);
+        return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(ticket);
+    }
+
+    //대기열이 가득 차면 503 + Retry-After(클라이언트가 잠시 후 재시도)
+    @ExceptionHandler(OrderQueueFullException.class)
+    public ResponseEntity<String> queueFull(OrderQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    //대량 취소 : 주문 id 목록 또는 검색 조건(OrderSearch)
+    //배송완료/이미 취소된 주문은 SQL에서 걸러서 skipped로 보고
+    //둘 다 없거나 조건이 빈 search는 400(전체 주문 취소 방지)
+    @PostMapping("/api/v1/orders/bulk-cancel")
+    public BulkCancelResult bulkCancel(@RequestBody BulkCancelRequest request) {
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            return bulkOrderService.cancel(request.getOrderIds());
+        }
+        if (request.getSearch() == null) {
+            throw new InvalidOrderRequestException("orderIds 또는 search가 필요합니다.");
+        }
+        return bulkOrderService.cancel(request.getSearch());
+    }
+
+    @Data
+    static class BulkCancelRequest {
+        private List<Long> orderIds;
+        private OrderSearch search;
+    }
+
+    //전체 주문 스트리밍 내보내기(NDJSON : 한 줄에 주문 1건)
+    //v6처럼 List로 모아서 그룹핑하지 않고, 커서로 읽으면서 주문이 완성되는 대로 바로 씀
+    //-> 주문 수가 늘어나도 힙 사용량 일정
+    @GetMapping("/api/v6/orders/export")
+    @QueryBudget(1)
+    public void exportOrdersV6(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator gen = createGenerator(response)) {
+            gen.setRootValueSeparator(null);
+            orderQueryService.exportOrders(order -> {
+                OrderJsonWriter.write(gen, order);
+                try {
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    //v6 스트리밍 : 응답은 v6와 같은 JSON 배열, 주문이 완성되는 대로 바로 씀
+    //List<OrderQueryDto>와 직렬화된 전체 버퍼를 동시에 들고 있지 않음 -> 요청당 힙 사용량 일정
+    @GetMapping("/api/v6/orders/stream")
+    @QueryBudget(1)
+    public void ordersV6_stream(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator gen = createGenerator(response)) {
+            gen.writeStartArray();
+            orderQueryService.exportOrders(order -> OrderJsonWriter.write(gen, order));
+            gen.writeEndArray();
+        }
+    }
+
+    //v3 스트리밍 : 엔티티를 키셋 페이지(100건)로 읽어 DTO 없이 바로 씀, 페이지마다 영속성 컨텍스트 비움
+    //페이지마다 같은 쿼리가 반복되는 것이 정상 -> N+1 검사 제외
+    @GetMapping("/api/v3/orders/stream")
+    @QueryBudget(detectRepeats = false)
+    public void ordersV3_stream(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator gen = createGenerator(response)) {
+            gen.writeStartArray();
+            orderQueryService.streamOrders(order -> OrderJsonWriter.write(gen, order));
+            gen.writeEndArray();
+        }
+    }
+
+    //생성기 내부 버퍼(8KB)가 차면 서블릿 출력 버퍼로 흘려보냄
+    private JsonGenerator createGenerator(HttpServletResponse response) throws IOException {
+        return objectMapper.getFactory().createGenerator(response.getOutputStream());
+    }
 
     //플랫 데이터 최적화 : JOIN 결과 조회 후 원하는 모양으로 직접 변환
     @GetMapping("/api/v6/orders")
+    @QueryBudget(1)
     public List<OrderQueryDto> ordersV6() {
         List<OrderFlatDto> flats =  orderQueryRepository.findAllByDto_flat();
 
         //주문(Order)에 대한 데이터를 한 번의 쿼리로 모두 가져와서 OrderFlatDto라는 DTO 객체에 담아 반환
         //“평탄화”란, 주문 1건에 여러 주문상품이 있으면 주문정보가 중복으로 반복되며 한 행씩 쭉 나오는 것
         //페이징 불가능
-        return flats.stream()
-                .collect(groupingBy(o -> new OrderQueryDto(o.getOrderId(),
-                                o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
-                        mapping(o -> new OrderItemQueryDto(o.getOrderId(),
-                                o.getItemName(), o.getOrderPrice(), o.getCount()), toList())
-                )).entrySet().stream()
-                .map(e -> new OrderQueryDto(e.getKey().getOrderId(),
-                        e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(),
-                        e.getKey().getAddress(), e.getValue()))
-            .collect(toList());
+        return OrderFlatAssembler.groupByOrder(flats);
+    }
+
+    //플랫 데이터 + 페이징
+    //주문 id 페이지를 먼저 조회한 뒤 그 주문들만 플랫 조인 -> 주문 단위 페이징, 쿼리 2번
+    //id 순으로 정렬된 행을 한 번 훑으면서 조립(groupingBy처럼 행마다 키 객체를 만들지 않고 순서도 유지)
+    @GetMapping("/api/v6.1/orders")
+    @QueryBudget(2)
+    public List<OrderQueryDto> ordersV6_page(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        checkOffset(offset);
+        checkLimit(limit, MAX_PAGE_SIZE);
+        List<OrderFlatDto> flats = orderQueryRepository.findAllByDto_flat(offset, limit);
+        return OrderFlatAssembler.assemble(flats);
     }
 
     //1:N관계는 IN절 활용으로 메모리에 미리 조회해서 최적화
     @GetMapping("/api/v5/orders")
+    @ConditionalGet({TrackedResource.ORDERS, TrackedResource.MEMBERS, TrackedResource.ITEMS})
     public List<OrderQueryDto> ordersV5() {
         return orderQueryRepository.findAllByDto_optimization();
     }
 
+    //v5 + 페이징
+    //주문 id를 고정 크기 청크로 나눠 IN 조회(jpashop.order-query 설정으로 동시 조회 가능)
+    //쿼리 최대 3번 : 주문 1 + 주문상품 IN 청크(in-chunk-size 512 기준 limit 1000이면 2번)
+    //병렬 조회 시 보조 스레드의 청크 조회는 요청 집계에서 빠짐
+    @GetMapping("/api/v5.1/orders")
+    @QueryBudget(3)
+    public List<OrderQueryDto> ordersV5_page(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        checkOffset(offset);
+        checkLimit(limit, MAX_PAGE_SIZE);
+        return orderQueryRepository.findAllByDto_optimization(offset, limit);
+    }
+
     //DTO 직접 조회
     //ToOne 먼저 조회
     //ToMany(컬렉션) 별도 처리(row 수 증가하기 때문에)
@@ -68,85 +233,86 @@ public class OrderApiController {
     //컬렉션 페이징 한계 돌파하기
     //XToOne 관계는 fetch join으로 쿼리 수 최적화
     //컬렉션은 지연 로딩 유지하고 yaml 파일 hibernate 설정(fetch_size)으로 최적화, 페이징 처리
+    //쿼리 3번 : 주문(+회원, 배송 fetch join) 1 + 주문상품, 상품 IN 조회 1번씩(limit <= MAX_BATCHED_PAGE_SIZE)
     @GetMapping("/api/v3.1/orders")
+    @QueryBudget(3)
     public List<OrderDto> odersV3_page(
             @RequestParam(value = "offset", defaultValue = "0") int offset,
             @RequestParam(value = "limit", defaultValue = "100") int limit) {
 
-        List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit); //XToOne -> fetch join
+        checkOffset(offset);
+        checkLimit(limit, MAX_BATCHED_PAGE_SIZE);
+        //조회와 DTO 변환 모두 읽기 전용 트랜잭션 안에서(스냅샷 없음)
+        return orderQueryService.ordersV3_page(offset, limit);
+    }
+
+    //키셋(커서) 페이징
+    //v3.1의 offset은 깊은 페이지일수록 앞 행을 읽고 버리는 비용이 커짐
+    //(orderDate, orderId) 커서 다음부터 limit개만 조회 -> 페이지 깊이와 무관하게 비용 동일
+    //컬렉션은 v3.1과 동일하게 지연 로딩 + default_batch_fetch_size로 최적화
+    //쿼리 3번 : 주문(+회원, 배송 fetch join) 1 + 주문상품, 상품 IN 조회 1번씩(limit <= MAX_BATCHED_PAGE_SIZE)
+    @GetMapping("/api/v3.2/orders")
+    @QueryBudget(3)
+    public OrderPage<OrderDto> ordersV3_keyset(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        checkLimit(limit, MAX_BATCHED_PAGE_SIZE);
+        OrderCursor after = cursor == null ? null : OrderCursor.decode(cursor); //형식이 틀리면 400
+        List<OrderDto> result = orderQueryService.ordersV3_keyset(after, limit);
+
+        //마지막 페이지면 다음 커서 없음
+        OrderDto last = result.isEmpty() ? null : result.get(result.size() - 1);
+        String nextCursor = last == null || result.size() < limit ? null
+                : new OrderCursor(last.getOrderDate(), last.getOrderId()).encode();
+
+        return new OrderPage<>(result, nextCursor);
+    }
+
+    //페이지 크기는 1 ~ max, 벗어나면 400(setMaxResults(0 이하)나 무제한 조회 방지)
+    private static void checkLimit(int limit, int max) {
+        if (limit < 1 || limit > max) {
+            throw new InvalidPageRequestException("limit은 1 ~ " + max + " 사이여야 합니다.");
+        }
+    }
 
-        List<OrderDto> result = orders.stream()
-                .map(o -> new OrderDto(o))
-                .collect(Collectors.toList());
+    //음수 offset은 setFirstResult에서 IllegalArgumentException(500) -> 400
+    private static void checkOffset(int offset) {
+        if (offset < 0) {
+            throw new InvalidPageRequestException("offset은 0 이상이어야 합니다.");
+        }
+    }
 
-        return result;
+    @Data
+    @AllArgsConstructor
+    static class OrderPage<T> {
+        private List<T> data;
+        private String nextCursor;
     }
 
     private final OrderQueryService orderQueryService;
 
     //fetch join으로 쿼리 수 최적화
+    //limit을 주면 2단계 페이징(주문 id 페이지 1번 + 그 주문들 fetch join 1번), 없으면 전체 1번
     @GetMapping("/api/v3/orders")
-    public List<jpabook.jpashop.service.query.OrderDto> odersV3() {
+    @QueryBudget(2)
+    public List<OrderDto> odersV3(
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", required = false) Integer limit) {
 
+        if (limit != null) {
+            checkOffset(offset);
+            checkLimit(limit, MAX_PAGE_SIZE);
+            return orderQueryService.ordersV3(offset, limit);
+        }
         return orderQueryService.ordersV3();
-
-//        List<Order> orders = orderRepository.findAllWithItem();
-//
-//        List<OrderDto> result = orders.stream()
-//                .map(o -> new OrderDto(o))
-//                .collect(Collectors.toList());
-//
-//        return result;
     }
-    
+
     //객체 조회 후 DTO 변환
     @GetMapping("/api/v2/orders")
+    //지연 로딩까지 읽기 전용 트랜잭션 안에서 끝냄(OSIV로 트랜잭션 밖에서 읽으면 엔티티마다 스냅샷)
     public List<OrderDto> ordersV2() {
-        List<Order> orders = orderRepository.findAllByString(new OrderSearch());
-        List<OrderDto> collect = orders.stream()
-                .map(OrderDto::new)
-//                .map(o -> new OrderDto(o))
-                .collect(toList());
-        return collect;
-    }
-
-    @Data
-    static class OrderDto {
-        private Long orderId;
-        private String name;
-        private LocalDateTime orderDate;
-        private OrderStatus orderStatus;
-        private Address address;
-        private List<OrderItemDto> orderItems; //OrderItem으로 받으면 안 되고 Dto로 맵핑(객체 직접 노출 방지)
-
-        //생성자
-        public OrderDto(Order order) {
-            orderId = order.getId();
-            name = order.getMember().getName();
-            orderDate = order.getOrderDate();
-            orderStatus = order.getStatus();
-            address = order.getDelivery().getAddress();
-            orderItems = order.getOrderItems().stream()
-                    .map(orderItem -> new OrderItemDto(orderItem))
-                    .collect(toList());
-
-//            order.getOrderItems().stream().forEach(o -> o.getItem().getName());
-//            orderItems = order.getOrderItems();
-        }
-    }
-
-    @Data
-    static class OrderItemDto{
-        private String itemName;
-        private int orderPrice;
-        private int count;
-
-        //생성자
-        public OrderItemDto(OrderItem orderItem) {
-            itemName = orderItem.getItem().getName(); //강제 초기화
-            orderPrice = orderItem.getOrderPrice();
-            count = orderItem.getCount();
-        }
+        return orderQueryService.ordersV2();
     }
 
     //객체 조회 후 그대로 반환
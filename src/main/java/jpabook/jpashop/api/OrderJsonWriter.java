@@ -0,0 +1,94 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 주문 JSON 직접 쓰기(스트리밍 응답용)
+ * ObjectMapper처럼 리플렉션/프로퍼티 탐색 없이 필드를 순서대로 JsonGenerator에 씀
+ * 출력 모양은 OrderDto, OrderQueryDto를 ObjectMapper로 직렬화한 것과 같음
+ * {orderId, name, orderDate, orderStatus, address{city, street, zipcode}, orderItems[{itemName, orderPrice, count}]}
+ */
+final class OrderJsonWriter {
+
+    private OrderJsonWriter() {
+    }
+
+    //v4 ~ v6 DTO
+    static void write(JsonGenerator gen, OrderQueryDto order) {
+        try {
+            writeHeader(gen, order.getOrderId(), order.getName(), order.getOrderDate(),
+                    order.getOrderStatus(), order.getAddress());
+            if (order.getOrderItems() == null) {
+                gen.writeNullField("orderItems"); //ObjectMapper와 같게 [] 대신 null
+            } else {
+                gen.writeArrayFieldStart("orderItems");
+                for (OrderItemQueryDto item : order.getOrderItems()) {
+                    writeItem(gen, item.getItemName(), item.getOrderPrice(), item.getCount());
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //v2, v3 : 엔티티에서 DTO를 만들지 않고 바로 씀(컬렉션은 지연 로딩 + batch fetch)
+    static void write(JsonGenerator gen, Order order) {
+        try {
+            writeHeader(gen, order.getId(), order.getMember().getName(), order.getOrderDate(),
+                    order.getStatus(), order.getDelivery().getAddress());
+            gen.writeArrayFieldStart("orderItems");
+            for (OrderItem item : order.getOrderItems()) {
+                writeItem(gen, item.getItem().getName(), item.getOrderPrice(), item.getCount());
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeHeader(JsonGenerator gen, Long orderId, String name, LocalDateTime orderDate,
+                                    OrderStatus status, Address address) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName("orderId");
+        if (orderId == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(orderId);
+        }
+        gen.writeStringField("name", name);
+        //jackson-datatype-jsr310과 같은 형식
+        gen.writeStringField("orderDate", orderDate == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(orderDate));
+        gen.writeStringField("orderStatus", status == null ? null : status.name());
+        if (address == null) {
+            gen.writeNullField("address");
+        } else {
+            gen.writeObjectFieldStart("address");
+            gen.writeStringField("city", address.getCity());
+            gen.writeStringField("street", address.getStreet());
+            gen.writeStringField("zipcode", address.getZipcode());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeItem(JsonGenerator gen, String itemName, int orderPrice, int count) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("itemName", itemName);
+        gen.writeNumberField("orderPrice", orderPrice);
+        gen.writeNumberField("count", count);
+        gen.writeEndObject();
+    }
+}
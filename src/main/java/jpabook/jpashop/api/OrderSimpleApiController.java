@@ -1,16 +1,26 @@
 package jpabook.jpashop.api;
 
+import jpabook.jpashop.change.ConditionalGet;
+import jpabook.jpashop.change.TrackedResource;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import jpabook.jpashop.monitoring.QueryBudget;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
@@ -30,11 +40,64 @@ order -> delivery
 @RequiredArgsConstructor
 public class OrderSimpleApiController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final OrderSimpleQueryRepository orderSimpleQueryRepository;
 
+    //Querydsl 동적 검색 + 페이징(상태, 회원명/상품명 prefix, 주문일시 범위)
+    //count=false면 count 쿼리 없이 다음 페이지 여부만 확인(Slice)
+    @GetMapping("/api/v5/simple-orders")
+    @QueryBudget(2)
+    public SearchResult<SimpleOrderDto> ordersV5(
+            @ModelAttribute OrderSearch orderSearch,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "count", defaultValue = "true") boolean count) {
+
+        checkPage(page, size);
+        PageRequest pageable = PageRequest.of(page, size);
+        if (count) {
+            Page<Order> orders = orderRepository.search(orderSearch, pageable);
+            return new SearchResult<>(toSimpleOrderDtos(orders.getContent()),
+                    page, size, orders.hasNext(), orders.getTotalElements());
+        }
+
+        Slice<Order> orders = orderRepository.searchSlice(orderSearch, pageable);
+        return new SearchResult<>(toSimpleOrderDtos(orders.getContent()),
+                page, size, orders.hasNext(), null);
+    }
+
+    //PageRequest.of는 음수 page, 1 미만 size에서 IllegalArgumentException(500) -> 400, size는 최대 MAX_PAGE_SIZE
+    private static void checkPage(int page, int size) {
+        if (page < 0) {
+            throw new InvalidPageRequestException("page는 0 이상이어야 합니다.");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("size는 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다.");
+        }
+    }
+
+    private static List<SimpleOrderDto> toSimpleOrderDtos(List<Order> orders) {
+        return orders.stream()
+                .map(o -> new SimpleOrderDto(o))
+                .collect(Collectors.toList());
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class SearchResult<T> {
+        private List<T> data;
+        private int page;
+        private int size;
+        private boolean hasNext;
+        private Long totalCount; //count 생략 시 null
+    }
+
     //원하는 컬럼만 가져옴!!!!
     @GetMapping("/api/v4/simple-orders")
+    @ConditionalGet({TrackedResource.ORDERS, TrackedResource.MEMBERS})
+    @QueryBudget(1)
     public List<OrderSimpleQueryDto> ordersV4() {
         
         //재사용성이 떨어짐(JPQL을 직접 적음)
@@ -44,6 +107,7 @@ public class OrderSimpleApiController {
 
     //쿼리 한 번만 실행!!!!(fetch join)
     @GetMapping("/api/v3/simple-orders")
+    @QueryBudget(1)
     public List<SimpleOrderDto> ordersV3(){
 
         //Order 객체를 건드리지 않으면서 원하는 값을 가져옴
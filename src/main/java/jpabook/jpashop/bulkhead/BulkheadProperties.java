@@ -0,0 +1,27 @@
+package jpabook.jpashop.bulkhead;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.bulkhead")
+public class BulkheadProperties {
+
+    //요청 동시 실행 수 제한 사용 여부(가상 스레드 모드에서 사용)
+    private boolean enabled = false;
+
+    //동시에 처리할 요청 수, 0이면 커넥션 풀 최대 크기(hikari maximum-pool-size)
+    private int permits = 0;
+
+    //허가를 기다리는 최대 시간, 넘으면 503
+    private Duration acquireTimeout = Duration.ofSeconds(1);
+
+    //제한하지 않을 경로(DB를 쓰지 않는 요청)
+    private List<String> excludePatterns = new ArrayList<>(List.of(
+            "/actuator/**", "/css/**", "/js/**", "/images/**", "/favicon.ico"));
+}
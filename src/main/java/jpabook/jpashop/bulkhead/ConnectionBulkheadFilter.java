@@ -0,0 +1,96 @@
+package jpabook.jpashop.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 풀 크기에 맞춘 요청 동시 실행 제한(bulkhead)
+ * 가상 스레드는 요청마다 하나씩 거의 무제한으로 생기지만 커넥션은 풀 크기만큼뿐
+ * -> 제한이 없으면 수천 개 스레드가 Hikari 대기열에 쌓여 connection-timeout(30초)까지 기다리다 실패
+ * OSIV로 요청 하나가 커넥션을 요청 끝까지 잡으므로 요청 단위로 허가를 나눔
+ * 허가를 못 받으면 짧게 기다린 뒤 503 + Retry-After로 빨리 거절
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "jpashop.bulkhead", name = "enabled", havingValue = "true")
+public class ConnectionBulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadProperties properties;
+    private final Semaphore semaphore;
+    private final Counter rejected;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ConnectionBulkheadFilter(BulkheadProperties properties, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        int permits = properties.getPermits() > 0 ? properties.getPermits() : poolSize(dataSource);
+        this.semaphore = new Semaphore(permits);
+        this.rejected = Counter.builder("jpashop.bulkhead.rejected").register(meterRegistry);
+        Gauge.builder("jpashop.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .register(meterRegistry);
+        log.info("connection bulkhead enabled. permits={}", permits);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(properties.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "server busy");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return properties.getExcludePatterns().stream()
+                .anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("cannot read connection pool size", e);
+        }
+        throw new IllegalStateException("커넥션 풀 크기를 알 수 없습니다. jpashop.bulkhead.permits를 지정해 주세요.");
+    }
+}
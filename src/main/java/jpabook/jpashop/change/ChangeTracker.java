@@ -0,0 +1,52 @@
+package jpabook.jpashop.change;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 리소스(테이블 묶음)별 변경 카운터 -> 목록 조회 없이 ETag 계산
+ * 서비스의 쓰기 경로가 커밋된 뒤에 카운터를 올림(롤백되면 그대로)
+ * 카운터는 서버 메모리에 있으므로 서버 1대 기준, 서비스를 거치지 않은 DB 직접 변경은 감지하지 못함
+ * 서버가 재시작되면 epoch가 바뀌어 이전 ETag는 모두 무효
+ */
+@Component
+public class ChangeTracker {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<TrackedResource, AtomicLong> versions = new EnumMap<>(TrackedResource.class);
+
+    public ChangeTracker() {
+        for (TrackedResource resource : TrackedResource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    //트랜잭션 안이면 커밋된 뒤에, 밖이면 바로
+    public void changed(TrackedResource resource) {
+        AtomicLong version = versions.get(resource);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    public String etag(TrackedResource... resources) {
+        StringBuilder sb = new StringBuilder("W/\"").append(epoch);
+        for (TrackedResource resource : resources) {
+            sb.append('-').append(versions.get(resource).get());
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,18 @@
+package jpabook.jpashop.change;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class ChangeTrackingConfig implements WebMvcConfigurer {
+
+    private final ChangeTracker changeTracker;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(changeTracker));
+    }
+}
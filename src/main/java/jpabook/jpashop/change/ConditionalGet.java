@@ -0,0 +1,17 @@
+package jpabook.jpashop.change;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 조건부 GET(If-None-Match) 대상 목록 API
+ * value : 응답에 포함되는 리소스, 이 중 하나라도 바뀌면 새 응답
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    TrackedResource[] value();
+}
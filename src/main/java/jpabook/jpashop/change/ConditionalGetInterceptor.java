@@ -0,0 +1,40 @@
+package jpabook.jpashop.change;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * @ConditionalGet 핸들러 실행 전에 변경 카운터로 ETag 비교
+ * 바뀐 게 없으면 핸들러를 실행하지 않고 304(DB 조회 없음)
+ * 핸들러 실행 중에 커밋된 변경은 다음 요청에서 다른 ETag로 보이므로 오래된 응답이 304로 고정되지 않음
+ * Last-Modified는 보내지 않음 : 초 단위라 같은 초 안의 변경을 구분 못 함
+ * -> If-Modified-Since만 보내는 클라이언트가 오래된 응답에 304를 받을 수 있음(ETag가 없으면 항상 200)
+ */
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ChangeTracker changeTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        TrackedResource[] resources = conditionalGet.value();
+        //캐시해도 되지만 쓰기 전에 항상 재검증
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(changeTracker.etag(resources));
+    }
+}
@@ -0,0 +1,8 @@
+package jpabook.jpashop.change;
+
+/**
+ * 변경 추적 단위(목록 API가 읽는 테이블 묶음)
+ */
+public enum TrackedResource {
+    MEMBERS, ITEMS, ORDERS
+}
@@ -0,0 +1,40 @@
+package jpabook.jpashop.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.datagen")
+public class DataGenProperties {
+
+    //true면 InitDb의 샘플 데이터 대신 대용량 데이터 생성
+    private boolean enabled = false;
+
+    //같은 seed면 같은 데이터(실행 시각과 무관, id만 시퀀스 상태에 따라 평행 이동)
+    private long seed = 42;
+
+    private int members = 1_000_000;
+    private int items = 100_000;
+    private int orders = 2_000_000;
+
+    //카테고리 트리 : 단계 수, 부모당 자식 수(leaf에 상품 연결)
+    private int categoryDepth = 3;
+    private int categoryFanout = 8;
+
+    //주문 1건의 주문상품 수 1 ~ maxItemsPerOrder, 적은 쪽으로 치우침(zipf)
+    private int maxItemsPerOrder = 10;
+    private double itemCountSkew = 1.5;
+
+    //상품 인기도 치우침(zipf 지수, 클수록 소수 상품에 주문 집중)
+    private double itemPopularitySkew = 1.1;
+
+    //주문 기간 : orderUntil 기준 과거 orderDays일(실행 시각이 아닌 고정 시각 -> 언제 생성해도 같은 주문일)
+    private int orderDays = 365;
+    private LocalDateTime orderUntil = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    //JDBC 배치 크기
+    private int batchSize = 5_000;
+}
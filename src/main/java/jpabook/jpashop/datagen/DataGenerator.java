@@ -0,0 +1,283 @@
+package jpabook.jpashop.datagen;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 대용량 테스트 데이터 생성(jpashop.datagen)
+ * 엔티티를 persist하지 않고 JdbcTemplate 배치 insert로 직접 적재 -> 수백만 건도 몇 분 안에
+ * id는 각 엔티티 시퀀스에서 구간을 통째로 확보해서 쓰고, 끝나면 시퀀스를 그 뒤로 옮김
+ * (이후 JPA로 저장하는 엔티티와 id가 겹치지 않음)
+ * 같은 seed면 같은 데이터 : 값은 모두 seed 난수와 행 번호(id가 아님), 고정 시각(orderUntil)에서 나옴
+ * id만 시퀀스 상태에 따라 평행 이동(빈 스키마에서 생성하면 id까지 같음)
+ * 회원 이름은 행 번호로 만들므로 이미 생성한 스키마에 다시 실행하면 유니크 제약 위반 -> 빈 스키마에서 실행
+ */
+@Slf4j
+@Component
+public class DataGenerator {
+
+    private static final String[] CITIES = {"서울", "경기", "부산", "대구", "인천", "광주", "대전", "울산"};
+
+    private final DataGenProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+
+    public DataGenerator(DataGenProperties properties, DataSource dataSource, EntityManagerFactory emf) {
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(unwrapPool(dataSource));
+        this.sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public void generate() {
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+
+        long firstMemberId = insertMembers();
+        long firstItemId = insertItems(random);
+        insertCategories(firstItemId);
+        insertOrders(random, firstMemberId, firstItemId);
+
+        log.info("datagen finished in {}s. members={}, items={}, orders={}",
+                (System.currentTimeMillis() - started) / 1000,
+                properties.getMembers(), properties.getItems(), properties.getOrders());
+    }
+
+    //회원 이름은 유일(member + 행 번호)
+    private long insertMembers() {
+        int count = properties.getMembers();
+        long firstId = reserveIds(Member.class, "member", "member_id", count);
+
+        List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            batch.add(new Object[]{id, "member" + i, CITIES[i % CITIES.length], "street " + i, zipcode(i)});
+            flushIfFull(batch, "insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)");
+        }
+        flush(batch, "insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)");
+        log.info("datagen members={}", count);
+        return firstId;
+    }
+
+    //Book/Album/Movie를 번갈아 생성, 재고는 주문으로 모자라지 않을 만큼
+    private long insertItems(SplittableRandom random) {
+        int count = properties.getItems();
+        long firstId = reserveIds(Item.class, "item", "item_id", count);
+
+        String sql = "insert into item (item_id, dtype, name, price, stock_quantity, version," +
+                " author, isbn, artist, etc, director, actor) values (?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            int price = (1 + random.nextInt(100)) * 1_000;
+            int stock = 1_000 + random.nextInt(1_000_000);
+            batch.add(switch (i % 3) {
+                case 0 -> new Object[]{id, "B", "book" + i, price, stock, "author" + i % 5_000, "isbn-" + i, null, null, null, null};
+                case 1 -> new Object[]{id, "A", "album" + i, price, stock, null, null, "artist" + i % 5_000, null, null, null};
+                default -> new Object[]{id, "M", "movie" + i, price, stock, null, null, null, null, "director" + i % 5_000, "actor" + i % 5_000};
+            });
+            flushIfFull(batch, sql);
+        }
+        flush(batch, sql);
+        log.info("datagen items={}", count);
+        return firstId;
+    }
+
+    //depth 단계, 부모당 fanout개 자식 트리 -> 상품은 leaf 카테고리에 하나씩 연결
+    private void insertCategories(long firstItemId) {
+        int depth = properties.getCategoryDepth();
+        int fanout = properties.getCategoryFanout();
+        if (depth <= 0 || fanout <= 0) {
+            return;
+        }
+        int total = 0;
+        for (int level = 1, width = fanout; level <= depth; level++, width *= fanout) {
+            total += width;
+        }
+        long firstId = reserveIds(Category.class, "category", "category_id", total);
+
+        String sql = "insert into category (category_id, name, parent_id) values (?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+        long nextId = firstId;
+        long parentFrom = -1;
+        int parentCount = 1; //최상위는 부모 없음
+        for (int level = 1; level <= depth; level++) {
+            long levelFrom = nextId;
+            for (int p = 0; p < parentCount; p++) {
+                Long parentId = parentFrom < 0 ? null : parentFrom + p;
+                for (int c = 0; c < fanout; c++) {
+                    long id = nextId++;
+                    batch.add(new Object[]{id, "category" + level + "-" + (id - levelFrom), parentId});
+                    flushIfFull(batch, sql);
+                }
+            }
+            parentFrom = levelFrom;
+            parentCount *= fanout;
+        }
+        flush(batch, sql);
+
+        //마지막 단계(leaf)에 상품 연결
+        long leafFrom = parentFrom;
+        int leafCount = parentCount;
+        String linkSql = "insert into category_item (category_id, item_id) values (?, ?)";
+        for (int i = 0; i < properties.getItems(); i++) {
+            batch.add(new Object[]{leafFrom + i % leafCount, firstItemId + i});
+            flushIfFull(batch, linkSql);
+        }
+        flush(batch, linkSql);
+        log.info("datagen categories={}", total);
+    }
+
+    //주문 + 배송 + 주문상품
+    //주문상품 수와 상품 선택 모두 zipf로 치우침(소수 인기 상품에 주문 집중)
+    //주문일은 id 순으로 증가(실제처럼 최근 주문일수록 id가 큼)
+    private void insertOrders(SplittableRandom random, long firstMemberId, long firstItemId) {
+        int count = properties.getOrders();
+        int maxItems = Math.max(1, properties.getMaxItemsPerOrder());
+        ZipfSampler itemCount = new ZipfSampler(maxItems, properties.getItemCountSkew());
+        ZipfSampler itemRank = new ZipfSampler(properties.getItems(), properties.getItemPopularitySkew());
+        int[] itemByRank = shuffledIndexes(properties.getItems(), random); //인기 순위 -> 상품(id 순서와 무관하게)
+
+        long firstOrderId = reserveIds(Order.class, "orders", "order_id", count);
+        long firstDeliveryId = reserveIds(Delivery.class, "delivery", "delivery_id", count);
+        //주문상품 수는 생성 전에는 알 수 없으므로 최대치만큼 확보
+        long firstOrderItemId = reserveIds(OrderItem.class, "order_item", "order_item_id", (long) count * maxItems);
+
+        String deliverySql = "insert into delivery (delivery_id, city, street, zipcode, status) values (?, ?, ?, ?, ?)";
+        String orderSql = "insert into orders (order_id, member_id, delivery_id, order_date, status, version)" +
+                " values (?, ?, ?, ?, ?, 0)";
+        String orderItemSql = "insert into order_item (order_item_id, order_id, item_id, order_price, count, stock_applied)" +
+                " values (?, ?, ?, ?, ?, true)";
+
+        LocalDateTime from = properties.getOrderUntil().minusDays(properties.getOrderDays());
+        long secondsPerOrder = Math.max(1, properties.getOrderDays() * 86_400L / Math.max(count, 1));
+
+        List<Object[]> deliveries = new ArrayList<>(properties.getBatchSize());
+        List<Object[]> orders = new ArrayList<>(properties.getBatchSize());
+        List<Object[]> orderItems = new ArrayList<>(properties.getBatchSize() * 2);
+        long orderItemId = firstOrderItemId;
+        for (int i = 0; i < count; i++) {
+            long orderId = firstOrderId + i;
+            long deliveryId = firstDeliveryId + i;
+            int memberIndex = random.nextInt(properties.getMembers());
+
+            boolean canceled = random.nextInt(10) == 0;
+            DeliveryStatus deliveryStatus = !canceled && random.nextInt(10) < 7 ? DeliveryStatus.COMP : DeliveryStatus.READY;
+            deliveries.add(new Object[]{deliveryId, CITIES[memberIndex % CITIES.length], "street " + memberIndex,
+                    zipcode(memberIndex), deliveryStatus.name()});
+
+            Timestamp orderDate = Timestamp.valueOf(from.plusSeconds(i * secondsPerOrder + random.nextLong(secondsPerOrder)));
+            orders.add(new Object[]{orderId, firstMemberId + memberIndex, deliveryId, orderDate,
+                    (canceled ? OrderStatus.CANCEL : OrderStatus.ORDER).name()});
+
+            int lines = itemCount.sample(random);
+            for (int l = 0; l < lines; l++) {
+                long itemId = firstItemId + itemByRank[itemRank.sample(random) - 1];
+                int price = (1 + random.nextInt(100)) * 1_000;
+                orderItems.add(new Object[]{orderItemId++, orderId, itemId, price, 1 + random.nextInt(3)});
+            }
+
+            if (orders.size() >= properties.getBatchSize()) {
+                //FK 순서 : 배송 -> 주문 -> 주문상품
+                flush(deliveries, deliverySql);
+                flush(orders, orderSql);
+                flush(orderItems, orderItemSql);
+                if ((i + 1) % (properties.getBatchSize() * 100) == 0) {
+                    log.info("datagen orders {}/{}", i + 1, count);
+                }
+            }
+        }
+        flush(deliveries, deliverySql);
+        flush(orders, orderSql);
+        flush(orderItems, orderItemSql);
+        log.info("datagen orders={}, orderItems={}", count, orderItemId - firstOrderItemId);
+    }
+
+    /**
+     * id 구간 [firstId, firstId + count) 확보
+     * Hibernate pooled 옵티마이저가 이미 받아 둔 구간과 겹치지 않도록 시퀀스 다음 값 이후부터 사용하고,
+     * 끝나면 시퀀스를 구간 뒤로 재시작
+     */
+    private long reserveIds(Class<?> entityClass, String table, String idColumn, long count) {
+        DatabaseStructure sequence = sequenceOf(entityClass);
+        String sequenceName = sequence.getPhysicalName().render();
+        String nextValSql = sessionFactory.getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(sequenceName);
+
+        Long nextVal = jdbcTemplate.queryForObject(nextValSql, Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(" + idColumn + "), 0) from " + table, Long.class);
+        long firstId = Math.max(nextVal, maxId) + 1;
+
+        jdbcTemplate.execute("alter sequence " + sequenceName +
+                " restart with " + (firstId + count + sequence.getIncrementSize()));
+        return firstId;
+    }
+
+    private DatabaseStructure sequenceOf(Class<?> entityClass) {
+        var generator = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entityClass)
+                .getIdentifierGenerator();
+        if (generator instanceof SequenceStyleGenerator sequenceGenerator) {
+            return sequenceGenerator.getDatabaseStructure();
+        }
+        throw new IllegalStateException("시퀀스 id 생성 전략이 아닙니다. entity=" + entityClass.getSimpleName());
+    }
+
+    private void flushIfFull(List<Object[]> batch, String sql) {
+        if (batch.size() >= properties.getBatchSize()) {
+            flush(batch, sql);
+        }
+    }
+
+    private void flush(List<Object[]> batch, String sql) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        return indexes;
+    }
+
+    private static String zipcode(int i) {
+        return String.format("%05d", i % 100_000);
+    }
+
+    //p6spy 프록시를 거치면 배치 문장마다 로그가 남음 -> 커넥션 풀에 직접 연결
+    private static DataSource unwrapPool(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.warn("cannot unwrap data source, using it as is", e);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,33 @@
+package jpabook.jpashop.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 1 ~ n 중 하나를 zipf 분포로 뽑음(k가 뽑힐 확률 ∝ 1 / k^exponent)
+ * 누적 분포를 미리 계산해 두고 이진 탐색
+ */
+class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1) + 1;
+    }
+}
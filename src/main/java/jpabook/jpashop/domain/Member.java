@@ -11,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Getter @Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_member_name", columnNames = "name")) //중복 가입 최종 방어 + 이름 조회 인덱스
 public class Member {
 
     @Id
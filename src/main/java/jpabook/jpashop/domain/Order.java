@@ -12,7 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id")) //키셋 페이징용
 @Getter @Setter
 public class Order {
 
@@ -33,11 +34,15 @@ public class Order {
     @JoinColumn(name = "delivery_id")
     private Delivery delivery; //배송정보
 
+    @Column(name = "order_date", nullable = false) //키셋 페이징 커서 컬럼 -> null 불가
     private LocalDateTime orderDate; //주문시간
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status; //주문상태 [ORDER, CANCEL]
 
+    @Version
+    private Long version; //낙관적 락
+
     //==연관관계 메서드==//
     public void setMember(Member member) {
         this.member = member;
@@ -68,16 +73,22 @@ public class Order {
     }
 
     //==비즈니스 로직==//
-    /** 주문 취소 */
+    /**
+     * 주문 취소 - 상태 전이만 담당(배송완료, 이미 취소된 주문이면 예외)
+     * 예전에는 OrderItem.cancel()로 item 재고를 엔티티에서 직접 되돌렸지만,
+     * 이제 재고 반환은 StockService.returnStock에서만 처리(원자적 UPDATE + 인메모리 원장)
+     * -> 이 메서드만 호출하면 재고는 돌아오지 않음, 취소는 OrderService.cancelOrder 또는 대량 취소로
+     * 두 번 취소하면 재고가 두 번 반환되므로 예전과 달리 두 번째 취소는 예외
+     */
     public void cancel() {
         if (delivery.getStatus() == DeliveryStatus.COMP) {
             throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
         }
+        if (status == OrderStatus.CANCEL) {
+            throw new IllegalStateException("이미 취소된 주문입니다.");
+        }
 
         this.setStatus(OrderStatus.CANCEL);
-        for (OrderItem orderItem : orderItems) {
-            orderItem.cancel();
-        }
     }
 
     //==조회 로직==//
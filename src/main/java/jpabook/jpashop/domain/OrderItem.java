@@ -8,7 +8,8 @@ import jpabook.jpashop.domain.item.Item;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "order_item")
+@Table(name = "order_item",
+        indexes = @Index(name = "idx_order_item_stock_pending", columnList = "item_id, stock_applied"))
 @Getter @Setter
 public class OrderItem {
 
@@ -28,21 +29,32 @@ public class OrderItem {
     private int orderPrice; //주문 가격
     private int count;      //주문 수량
 
+    @JsonIgnore
+    @Column(name = "stock_applied")
+    private boolean stockApplied = true; //item 재고에 반영 여부(인메모리 재고 원장 사용 시 나중에 일괄 반영)
+
     //==생성 메서드==//
     public static OrderItem createOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = createReservedOrderItem(item, orderPrice, count);
+
+        item.removeStock(count);
+        return orderItem;
+    }
+
+    /** 재고를 이미 차감한 경우(ItemRepository.removeStock) */
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
         OrderItem orderItem = new OrderItem();
         orderItem.setItem(item);
         orderItem.setOrderPrice(orderPrice);
         orderItem.setCount(count);
-
-        item.removeStock(count);
         return orderItem;
     }
 
-    //==비즈니스 로직==//
-    /** 주문 취소 */
-    public void cancel() {
-        getItem().addStock(count);
+    /** 인메모리 재고 원장에서 예약한 경우(item 재고 반영은 InventoryFlusher가 나중에 처리) */
+    public static OrderItem createPendingOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = createReservedOrderItem(item, orderPrice, count);
+        orderItem.setStockApplied(false);
+        return orderItem;
     }
 
     //==조회 로직==//
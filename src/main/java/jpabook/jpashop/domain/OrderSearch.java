@@ -1,9 +1,20 @@
 package jpabook.jpashop.domain;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
 public class OrderSearch {
 
     private String memberName;      //회원 이름
     private OrderStatus orderStatus;//주문 상태[ORDER, CANCEL]
+    private String itemName;        //상품 이름
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime orderDateFrom; //주문일시 시작(포함)
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime orderDateTo;   //주문일시 끝(미포함)
 
     //Getter, Setter
     public String getMemberName() {
@@ -21,4 +32,28 @@ public class OrderSearch {
     public void setOrderStatus(OrderStatus orderStatus) {
         this.orderStatus = orderStatus;
     }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public LocalDateTime getOrderDateFrom() {
+        return orderDateFrom;
+    }
+
+    public void setOrderDateFrom(LocalDateTime orderDateFrom) {
+        this.orderDateFrom = orderDateFrom;
+    }
+
+    public LocalDateTime getOrderDateTo() {
+        return orderDateTo;
+    }
+
+    public void setOrderDateTo(LocalDateTime orderDateTo) {
+        this.orderDateTo = orderDateTo;
+    }
 }
\ No newline at end of file
@@ -26,6 +26,9 @@ public abstract class Item {
     private int price;
     private int stockQuantity;
 
+    @Version
+    private Long version; //낙관적 락
+
     @ManyToMany(mappedBy = "items")
     private List<Category> categories = new ArrayList<Category>();
 
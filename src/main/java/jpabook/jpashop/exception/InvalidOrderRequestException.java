@@ -0,0 +1,24 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderRequestException extends RuntimeException {
+
+    public InvalidOrderRequestException() {
+    }
+
+    public InvalidOrderRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidOrderRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidOrderRequestException(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException() {
+    }
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidPageRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidPageRequestException(Throwable cause) {
+        super(cause);
+    }
+
+}
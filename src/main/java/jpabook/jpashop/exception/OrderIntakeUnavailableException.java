@@ -0,0 +1,24 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OrderIntakeUnavailableException extends RuntimeException {
+
+    public OrderIntakeUnavailableException() {
+    }
+
+    public OrderIntakeUnavailableException(String message) {
+        super(message);
+    }
+
+    public OrderIntakeUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public OrderIntakeUnavailableException(Throwable cause) {
+        super(cause);
+    }
+
+}
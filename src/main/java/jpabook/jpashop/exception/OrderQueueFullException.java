@@ -0,0 +1,24 @@
+package jpabook.jpashop.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException() {
+    }
+
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+
+    public OrderQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public OrderQueueFullException(Throwable cause) {
+        super(cause);
+    }
+
+}
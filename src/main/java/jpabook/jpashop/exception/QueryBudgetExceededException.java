@@ -0,0 +1,20 @@
+package jpabook.jpashop.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException() {
+    }
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+
+    public QueryBudgetExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public QueryBudgetExceededException(Throwable cause) {
+        super(cause);
+    }
+
+}
@@ -0,0 +1,30 @@
+package jpabook.jpashop.intake;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.intake")
+public class IntakeProperties {
+
+    //비동기 주문 접수 사용 여부(false면 주문 화면은 기존처럼 동기 처리)
+    private boolean enabled = false;
+
+    //대기열 최대 길이, 가득 차면 503으로 거절
+    private int queueCapacity = 10_000;
+
+    //대기열을 비우는 writer 스레드 수(커넥션 풀보다 충분히 작게)
+    private int workers = 2;
+
+    //트랜잭션 1번에 커밋할 최대 주문 수
+    private int batchSize = 200;
+
+    //배치가 덜 찼을 때 더 모으기 위해 기다리는 최대 시간
+    private Duration linger = Duration.ofMillis(5);
+
+    //처리가 끝난 티켓을 조회할 수 있는 기간
+    private Duration ticketTtl = Duration.ofMinutes(10);
+}
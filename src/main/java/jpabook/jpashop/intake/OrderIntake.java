@@ -0,0 +1,243 @@
+package jpabook.jpashop.intake;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jpabook.jpashop.exception.InvalidOrderRequestException;
+import jpabook.jpashop.exception.OrderIntakeUnavailableException;
+import jpabook.jpashop.exception.OrderQueueFullException;
+import jpabook.jpashop.service.BulkOrderCommand;
+import jpabook.jpashop.service.BulkOrderResult;
+import jpabook.jpashop.service.BulkOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 비동기 주문 접수(jpashop.intake.enabled)
+ * 요청 스레드는 형식만 검사하고 제한된 대기열에 넣은 뒤 바로 티켓을 돌려줌(DB 커넥션 사용 안 함)
+ * writer 스레드가 대기열에서 최대 batchSize건씩 꺼내 트랜잭션 1번에 커밋(group commit)
+ * -> 초당 주문 수가 요청마다의 트랜잭션이 아니라 배치 커밋 속도에 좌우됨
+ * 회원/상품 존재 여부, 재고는 writer에서 확인하고 실패하면 티켓에 사유를 남김
+ * 배치 커밋이 실패하면 그 배치 주문을 1건씩 다시 커밋 -> 주문 1건 때문에 배치 전체가 실패하지 않음
+ * 종료할 때는 접수를 먼저 닫고 대기열을 비운 뒤 writer 종료
+ * 대기열이 메모리에 있으므로 서버가 비정상 종료되면 접수만 된 주문은 유실됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIntake {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final IntakeProperties properties;
+    private final BulkOrderService bulkOrderService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, OrderTicket> tickets = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private BlockingQueue<Entry> queue;
+
+    //accepting : submit 허용 여부, 쓰기 락으로 닫음 -> 닫힌 뒤에는 대기열에 들어오는 주문이 없음
+    //running   : false가 되면 writer는 대기열을 마저 비우고 종료(접수를 닫은 뒤에만 false)
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private boolean accepting;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("jpashop.intake.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+
+        running = true;
+        accepting = true;
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = new Thread(this::drain, "order-intake-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    //접수 중단 후 대기열에 남은 주문까지 커밋하고 종료
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false; //이후 submit은 503
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(SHUTDOWN_TIMEOUT_MS);
+        }
+
+        //시간 안에 커밋하지 못한 주문은 유실 대신 실패로 남김
+        if (queue != null && !queue.isEmpty()) {
+            List<Entry> left = new ArrayList<>();
+            queue.drainTo(left);
+            log.warn("order intake stopped with {} orders left in queue", left.size());
+            left.forEach(entry -> entry.ticket().fail("서버 종료로 주문이 처리되지 않았습니다."));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public OrderTicket submit(BulkOrderCommand command) {
+        validate(command);
+
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new OrderIntakeUnavailableException("비동기 주문 접수를 사용할 수 없습니다.");
+            }
+            OrderTicket ticket = new OrderTicket(UUID.randomUUID().toString());
+            tickets.put(ticket.getTicketId(), ticket);
+            if (!queue.offer(new Entry(ticket, command))) {
+                tickets.remove(ticket.getTicketId());
+                throw new OrderQueueFullException("주문 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요.");
+            }
+            return ticket;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    public OrderTicket findTicket(String ticketId) {
+        return tickets.get(ticketId);
+    }
+
+    //처리가 끝나고 ticketTtl이 지난 티켓 정리
+    @Scheduled(fixedDelay = 60_000)
+    public void evictTickets() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(properties.getTicketTtl());
+        tickets.values().removeIf(t -> t.isFinished() && t.getFinishedAt().isBefore(expiredBefore));
+    }
+
+    //DB 없이 할 수 있는 검사만, 잘못된 입력은 400(InvalidOrderRequestException)
+    private void validate(BulkOrderCommand command) {
+        if (command.getMemberId() == null) {
+            throw new InvalidOrderRequestException("회원을 선택해 주세요.");
+        }
+        if (command.getItems() == null || command.getItems().isEmpty()) {
+            throw new InvalidOrderRequestException("주문상품이 없습니다.");
+        }
+        for (BulkOrderCommand.Line line : command.getItems()) {
+            if (line.getItemId() == null) {
+                throw new InvalidOrderRequestException("상품을 선택해 주세요.");
+            }
+            if (line.getCount() <= 0) {
+                throw new InvalidOrderRequestException("주문 수량은 1개 이상이어야 합니다.");
+            }
+        }
+    }
+
+    //인터럽트되면 이 writer만 하던 배치를 커밋하고 끝냄(다른 writer는 계속 대기열을 비움)
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+        boolean interrupted = false;
+        while (!interrupted && (running || !queue.isEmpty())) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    //첫 주문을 기다린 뒤, 이미 쌓인 주문을 꺼내고 linger 동안 더 모음
+    private void collect(List<Entry> batch) throws InterruptedException {
+        Entry first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        int batchSize = properties.getBatchSize();
+        long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Entry> batch) {
+        List<BulkOrderCommand> commands = batch.stream().map(Entry::command).toList();
+        BulkOrderResult result;
+        try {
+            result = bulkOrderService.order(commands);
+        } catch (RuntimeException e) {
+            log.warn("order intake batch failed, retrying one by one. size={}", batch.size(), e);
+            batch.forEach(this::commitOne);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Long orderId = result.getOrderIds().get(i);
+            if (orderId != null) {
+                batch.get(i).ticket().complete(orderId);
+            }
+        }
+        for (BulkOrderResult.Failure failure : result.getFailures()) {
+            Entry entry = batch.get(failure.getIndex());
+            if (failure.isRetryable() && batch.size() > 1) {
+                commitOne(entry); //배치 롤백에 휘말린 주문 -> 1건만 다시 커밋
+            } else {
+                entry.ticket().fail(failure.getReason());
+            }
+        }
+    }
+
+    //bulk 경로와 같은 주문별 격리 : 실패한 배치의 주문을 각자 트랜잭션으로
+    private void commitOne(Entry entry) {
+        try {
+            BulkOrderResult result = bulkOrderService.order(List.of(entry.command()));
+            Long orderId = result.getOrderIds().get(0);
+            if (orderId != null) {
+                entry.ticket().complete(orderId);
+            } else {
+                entry.ticket().fail(result.getFailures().get(0).getReason());
+            }
+        } catch (RuntimeException e) {
+            log.error("order intake order failed. memberId={}", entry.command().getMemberId(), e);
+            entry.ticket().fail("주문 처리 중 오류가 발생했습니다.");
+        }
+    }
+
+    private record Entry(OrderTicket ticket, BulkOrderCommand command) {
+    }
+}
@@ -0,0 +1,45 @@
+package jpabook.jpashop.intake;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 비동기 주문 접수증
+ * writer 스레드가 결과를 채우고 요청 스레드가 읽으므로 상태 필드는 volatile
+ */
+@Getter
+public class OrderTicket {
+
+    public enum Status {
+        PENDING, COMPLETED, FAILED
+    }
+
+    private final String ticketId;
+    private final LocalDateTime acceptedAt;
+    private volatile Status status = Status.PENDING;
+    private volatile Long orderId;
+    private volatile String reason;
+    private volatile LocalDateTime finishedAt;
+
+    public OrderTicket(String ticketId) {
+        this.ticketId = ticketId;
+        this.acceptedAt = LocalDateTime.now();
+    }
+
+    void complete(Long orderId) {
+        this.orderId = orderId;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        this.reason = reason;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    boolean isFinished() {
+        return status != Status.PENDING;
+    }
+}
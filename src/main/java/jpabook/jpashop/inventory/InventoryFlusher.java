@@ -0,0 +1,61 @@
+package jpabook.jpashop.inventory;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 인메모리 원장으로 예약된 주문상품(stock_applied = false)을 item.stock_quantity에 일괄 반영
+ * 반영 여부가 주문상품 행에 같은 트랜잭션으로 기록되므로, 서버가 죽어도 다시 실행하면 정확히 맞춰짐
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryFlusher {
+
+    private final EntityManager em;
+
+    //반영한 수량 반환
+    @Transactional
+    public int flush(Long itemId, int batchSize) {
+        //반영할 행을 id로 확정(늦게 커밋되는 행이 섞이지 않도록)
+        List<Object[]> pending = em.createQuery(
+                        "select oi.id, oi.count from OrderItem oi" +
+                                " where oi.item.id = :itemId and oi.stockApplied = false", Object[].class)
+                .setParameter("itemId", itemId)
+                .setMaxResults(batchSize)
+                .getResultList();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = pending.stream()
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toList());
+        int quantity = pending.stream().mapToInt(row -> (Integer) row[1]).sum();
+
+        em.createQuery("update OrderItem oi set oi.stockApplied = true where oi.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        em.createQuery("update versioned Item i" +
+                        " set i.stockQuantity = i.stockQuantity - :quantity" +
+                        " where i.id = :itemId")
+                .setParameter("quantity", quantity)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+        return quantity;
+    }
+
+    //없는 상품이면 empty
+    @Transactional(readOnly = true)
+    public Optional<Integer> currentStock(Long itemId) {
+        return em.createQuery("select i.stockQuantity from Item i where i.id = :itemId", Integer.class)
+                .setParameter("itemId", itemId)
+                .getResultStream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,130 @@
+package jpabook.jpashop.inventory;
+
+import jpabook.jpashop.exception.NotEnoughStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인기 상품 재고를 메모리에서 관리하는 원장(jpashop.inventory.enabled)
+ * 주문 시 DB 행 잠금 없이 StripedStock에서 예약하고, 주문상품은 stock_applied = false로 저장
+ * 예약된 수량은 주기적으로 InventoryFlusher가 item.stock_quantity에 일괄 반영(write-behind)
+ * 시작할 때 남은 예약을 모두 반영한 뒤 DB 재고로 카운터를 채움(장애 후 복구)
+ * 카운터가 서버 메모리에 있으므로 서버 1대에서만 사용
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger implements SmartInitializingSingleton {
+
+    private final InventoryProperties properties;
+    private final InventoryFlusher flusher;
+
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+    //웹 요청을 받기 전에 복구 + 로딩
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Long itemId : properties.getHotItemIds()) {
+            load(itemId);
+        }
+    }
+
+    //남은 예약을 모두 반영한 뒤 DB 재고로 카운터 생성, 없는 상품이면 경고만 남기고 건너뜀
+    public void load(Long itemId) {
+        Optional<Integer> current = flusher.currentStock(itemId);
+        if (current.isEmpty()) {
+            log.warn("inventory ledger skipped unknown item. itemId={}", itemId);
+            return;
+        }
+        int recovered = 0;
+        int applied;
+        while ((applied = flusher.flush(itemId, properties.getFlushBatchSize())) > 0) {
+            recovered += applied;
+        }
+        int stock = flusher.currentStock(itemId).orElse(0);
+        stocks.put(itemId, new StripedStock(stock, properties.getStripes()));
+        log.info("inventory ledger loaded. itemId={}, stock={}, recovered={}", itemId, stock, recovered);
+    }
+
+    public boolean manages(Long itemId) {
+        return stocks.containsKey(itemId);
+    }
+
+    //재고 예약 : 트랜잭션이 롤백되면 예약도 되돌림
+    public void reserve(Long itemId, int quantity) {
+        StripedStock stock = stocks.get(itemId);
+        if (!stock.tryReserve(quantity)) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        afterRollback(() -> stock.release(quantity));
+    }
+
+    //재고 반환(주문 취소) : 커밋된 뒤에 반영
+    public void release(Long itemId, int quantity) {
+        StripedStock stock = stocks.get(itemId);
+        afterCommit(() -> stock.release(quantity));
+    }
+
+    //재고 증감(상품 수정) : 커밋된 뒤에 카운터에도 같은 양을 반영
+    //item 재고와 카운터에 같은 증감을 적용하므로 "카운터 = item 재고 - 미반영 예약" 관계가 그대로 유지됨
+    //(절대값으로 교체하면 그 사이 들어온 예약이 카운터에서 사라져 초과 판매)
+    public void adjust(Long itemId, int delta) {
+        StripedStock stock = stocks.get(itemId);
+        afterCommit(() -> stock.adjust(delta));
+    }
+
+    public int available(Long itemId) {
+        return stocks.get(itemId).available();
+    }
+
+    @Scheduled(fixedDelayString = "${jpashop.inventory.flush-interval-ms:200}")
+    public void flush() {
+        for (Long itemId : stocks.keySet()) {
+            try {
+                flusher.flush(itemId, properties.getFlushBatchSize());
+            } catch (RuntimeException e) {
+                //반영 안 된 행은 그대로 남아 있으므로 다음 주기에 다시 반영됨
+                log.warn("inventory flush failed. itemId={}", itemId, e);
+            }
+        }
+    }
+
+    private static void afterRollback(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    task.run();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package jpabook.jpashop.inventory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.inventory")
+public class InventoryProperties {
+
+    //인메모리 재고 원장 사용 여부(서버 1대 기준)
+    private boolean enabled = false;
+
+    //메모리에서 재고를 관리할 인기 상품 id
+    private List<Long> hotItemIds = new ArrayList<>();
+
+    //상품당 버킷 수
+    private int stripes = 8;
+
+    //예약 수량을 item 재고에 반영하는 주기(InventoryLedger.flush)
+    private long flushIntervalMs = 200;
+
+    //한 번의 반영에서 처리할 주문상품 최대 행 수
+    private int flushBatchSize = 1000;
+}
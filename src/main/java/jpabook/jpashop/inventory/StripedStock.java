@@ -0,0 +1,155 @@
+package jpabook.jpashop.inventory;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 한 상품의 재고를 여러 버킷으로 나눠 보관하는 카운터
+ * 스레드마다 자기 버킷에서 CAS로 차감 -> 하나의 값에 경합이 몰리지 않음
+ * 자기 버킷이 모자라면 다른 버킷에서 재고를 끌어옴(재분배)
+ * 재분배는 락 안에서 한 번에 한 스레드만 -> 옮기는 중인 재고가 없으므로, 전체 재고가 충분한데 실패하는 일 없음
+ * 버킷 값은 음수가 되지 않으므로 초과 판매 없음
+ */
+public class StripedStock {
+
+    //버킷 간격 : int 16개 = 64바이트(캐시 라인) -> 인접 버킷끼리 false sharing 방지
+    private static final int PAD = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray buckets;
+
+    //adjust로 남은 재고보다 많이 줄였을 때 갚아야 할 수량(락 안에서만 변경)
+    //빚이 있는 동안은 버킷에서 바로 예약하지 않고 락 안에서 먼저 갚음
+    private volatile int debt;
+
+    public StripedStock(int quantity, int stripes) {
+        this.stripes = stripes;
+        this.buckets = new AtomicIntegerArray(stripes * PAD);
+        for (int i = 0; i < stripes; i++) {
+            buckets.set(i * PAD, quantity / stripes + (i < quantity % stripes ? 1 : 0));
+        }
+    }
+
+    public boolean tryReserve(int quantity) {
+        int home = home();
+        if (debt == 0 && tryTake(home, quantity)) {
+            return true;
+        }
+        synchronized (this) {
+            if (!settleDebt(home)) {
+                return false;
+            }
+            return takeFromOthers(home, quantity);
+        }
+    }
+
+    public void release(int quantity) {
+        int home = home();
+        buckets.addAndGet(home * PAD, quantity);
+        if (debt > 0) {
+            synchronized (this) {
+                settleDebt(home);
+            }
+        }
+    }
+
+    //재고를 증감(상품 수정)
+    //남은 재고보다 많이 줄이면 모자란 만큼 빚으로 남기고 이후 반환(release, adjust)분으로 먼저 갚음
+    public void adjust(int delta) {
+        if (delta >= 0) {
+            release(delta);
+            return;
+        }
+        synchronized (this) {
+            int home = home();
+            int need = debt - delta;
+            int collected = sweep(home, need);
+            int paid = Math.min(collected, need);
+            buckets.addAndGet(home * PAD, collected - paid);
+            debt = need - paid;
+        }
+    }
+
+    public int available() {
+        int sum = -debt;
+        for (int i = 0; i < stripes; i++) {
+            sum += buckets.get(i * PAD);
+        }
+        return sum;
+    }
+
+    private boolean tryTake(int stripe, int quantity) {
+        int index = stripe * PAD;
+        while (true) {
+            int current = buckets.get(index);
+            if (current < quantity) {
+                return false;
+            }
+            if (buckets.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    //빚을 모두 갚았으면 true(락 안에서만 호출)
+    private boolean settleDebt(int home) {
+        if (debt == 0) {
+            return true;
+        }
+        int collected = sweep(home, debt);
+        int paid = Math.min(collected, debt);
+        buckets.addAndGet(home * PAD, collected - paid);
+        debt -= paid;
+        return debt == 0;
+    }
+
+    //다른 버킷에서 재고를 모음(락 안에서만 호출)
+    //필요한 양보다 넉넉히(상대 버킷의 절반) 가져와서 남는 건 내 버킷에 채움 -> 다음 예약은 다시 내 버킷에서 처리
+    //모아도 모자라면 가져온 만큼 되돌리고 실패
+    private boolean takeFromOthers(int home, int quantity) {
+        int collected = sweep(home, quantity);
+        if (collected < quantity) {
+            buckets.addAndGet(home * PAD, collected);
+            return false;
+        }
+        buckets.addAndGet(home * PAD, collected - quantity);
+        return true;
+    }
+
+    //내 버킷 전부 + 다른 버킷에서 quantity가 찰 때까지 모음
+    //한 바퀴 도는 사이 이미 지나간 버킷에 반환(release)된 재고가 있을 수 있어, 더 모이지 않을 때까지 반복
+    private int sweep(int home, int quantity) {
+        int collected = takeAll(home);
+        boolean progressed = true;
+        while (collected < quantity && progressed) {
+            progressed = false;
+            for (int step = 1; step < stripes && collected < quantity; step++) {
+                int index = ((home + step) % stripes) * PAD;
+                while (true) {
+                    int current = buckets.get(index);
+                    if (current <= 0) {
+                        break;
+                    }
+                    int take = Math.min(current, Math.max(quantity - collected, current / 2));
+                    if (buckets.compareAndSet(index, current, current - take)) {
+                        collected += take;
+                        progressed = true;
+                        break;
+                    }
+                }
+            }
+            int returned = takeAll(home); //돌던 사이 내 버킷에 반환된 재고
+            collected += returned;
+            progressed |= returned > 0;
+        }
+        return collected;
+    }
+
+    private int takeAll(int stripe) {
+        return buckets.getAndSet(stripe * PAD, 0);
+    }
+
+    private int home() {
+        long id = Thread.currentThread().threadId();
+        return (int) Math.floorMod(id * 0x9E3779B97F4A7C15L >>> 32, (long) stripes);
+    }
+}
@@ -0,0 +1,13 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.db-metrics")
+public class DbMetricsProperties {
+
+    //핸들러별 영속성 계층 메트릭(jpashop.db.*, jpashop.hibernate.*) 기록 여부
+    private boolean enabled = true;
+}
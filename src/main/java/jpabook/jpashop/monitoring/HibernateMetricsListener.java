@@ -0,0 +1,57 @@
+package jpabook.jpashop.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+
+/**
+ * 엔티티 로딩, 컬렉션 초기화(지연 로딩), flush 횟수
+ * 기본 리스너 뒤에 붙어서 세기만 함
+ */
+public class HibernateMetricsListener implements PostLoadEventListener, InitializeCollectionEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    public void register(EntityManagerFactory emf) {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+        registry.appendListeners(EventType.FLUSH, this);
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.entityLoaded();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.collectionInitialized();
+        }
+    }
+
+    //명시적 flush, 커밋 시 flush
+    @Override
+    public void onFlush(FlushEvent event) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.flushed();
+        }
+    }
+
+    //쿼리 전 자동 flush : 실제로 flush한 경우만
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        QueryContext context = QueryContext.current();
+        if (context != null && event.isFlushRequired()) {
+            context.flushed();
+        }
+    }
+}
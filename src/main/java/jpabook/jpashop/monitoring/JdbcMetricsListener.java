@@ -0,0 +1,30 @@
+package jpabook.jpashop.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy가 감싼 커넥션에서 실행된 모든 JDBC 문장(배치 포함)의 수/시간, 읽은 행 수
+ */
+public class JdbcMetricsListener extends JdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.jdbcExecuted(timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        QueryContext context = QueryContext.current();
+        if (context != null && hasNext) {
+            context.rowRead();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * 요청별 영속성 계층 모니터링
+ * QueryBudgetFilter가 연 요청별 QueryContext를 메트릭 기록(RequestQueryListener)에 씀
+ */
+@Configuration
+public class MonitoringConfig {
+
+    //핸들러별 Micrometer 메트릭(actuator /metrics)
+    @Configuration
+    @ConditionalOnProperty(prefix = "jpashop.db-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class DbMetricsConfig {
+
+        //p6spy 스타터가 JdbcEventListener 빈을 자동 등록
+        @Bean
+        JdbcMetricsListener jdbcMetricsListener() {
+            return new JdbcMetricsListener();
+        }
+
+        @Bean
+        HibernateMetricsListener hibernateMetricsListener(EntityManagerFactory emf) {
+            HibernateMetricsListener listener = new HibernateMetricsListener();
+            listener.register(emf);
+            return listener;
+        }
+
+        //트랜잭션 매니저에 자동 등록
+        @Bean
+        TransactionMetricsListener transactionMetricsListener(MeterRegistry meterRegistry) {
+            return new TransactionMetricsListener(meterRegistry);
+        }
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        PersistenceMetricsRecorder persistenceMetricsRecorder(MeterRegistry meterRegistry) {
+            return new PersistenceMetricsRecorder(meterRegistry);
+        }
+    }
+
+    //SQL 모양별 실행 통계(/actuator/sqlprofile)
+    @Configuration
+    @ConditionalOnProperty(prefix = "jpashop.sql-profile", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class SqlProfileConfig {
+
+        @Bean
+        SqlFingerprintProfiler sqlFingerprintProfiler(SqlProfileProperties properties) {
+            return new SqlFingerprintProfiler(properties);
+        }
+
+        @Bean
+        SqlProfileEndpoint sqlProfileEndpoint(SqlFingerprintProfiler profiler, SqlProfileProperties properties) {
+            return new SqlProfileEndpoint(profiler, properties);
+        }
+
+        @Bean
+        SqlProfileJmxExtension sqlProfileJmxExtension(SqlFingerprintProfiler profiler) {
+            return new SqlProfileJmxExtension(profiler);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 1건의 영속성 계층 사용량을 핸들러 메서드 태그(예 : OrderApiController.ordersV5)로 기록
+ * 각 값은 요청당 분포(count = 요청 수, total = 합계, max) -> /actuator/metrics/jpashop.db.statements?tag=handler:...
+ * 컨트롤러를 거치지 않은 요청(정적 리소스 등)은 기록하지 않음
+ */
+@RequiredArgsConstructor
+public class PersistenceMetricsRecorder implements RequestQueryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void onRequestCompleted(QueryContext context) {
+        String handler = context.getHandler();
+        if (handler == null) {
+            return;
+        }
+        summary("jpashop.db.statements", "JDBC statements executed per request", handler)
+                .record(context.getJdbcExecutions());
+        Timer.builder("jpashop.db.statement.time")
+                .description("JDBC execution time per request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(context.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        summary("jpashop.db.rows", "Result set rows read per request", handler)
+                .record(context.getRowsRead());
+        summary("jpashop.hibernate.entities.loaded", "Entities loaded per request", handler)
+                .record(context.getEntitiesLoaded());
+        summary("jpashop.hibernate.collections.initialized", "Collections initialized per request", handler)
+                .record(context.getCollectionsInitialized());
+        summary("jpashop.hibernate.flushes", "Session flushes per request", handler)
+                .record(context.getFlushes());
+    }
+
+    private DistributionSummary summary(String name, String description, String handler) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("handler", handler)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 1건에서 실행할 수 있는 최대 SQL 수
+ * 넘으면 경고 로그(jpashop.query-budget.fail-on-violation=true면 예외 -> 테스트 실패)
+ * detectRepeats = false : 같은 SQL 반복이 정상인 핸들러(페이지 단위 스트리밍 등)는 N+1 검사 제외
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value() default -1; //-1 : 제한 없음
+
+    boolean detectRepeats() default true;
+}
@@ -0,0 +1,39 @@
+package jpabook.jpashop.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 요청별 QueryContext(필터 + 인터셉터)는 항상 등록 -> 메트릭(MonitoringConfig)도 같은 집계를 씀
+ * jpashop.query-budget.enabled=false면 SQL 기록(StatementInspector)과 예산 검사만 끔
+ */
+@Configuration
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jpashop.query-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+    HibernatePropertiesCustomizer queryCountingInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingInspector());
+    }
+
+    @Bean
+    FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties properties,
+                                                                ObjectProvider<RequestQueryListener> listeners) {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(new QueryBudgetFilter(properties, listeners));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20); //bulkhead 안쪽
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor());
+    }
+}
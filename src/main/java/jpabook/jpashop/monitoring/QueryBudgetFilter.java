@@ -0,0 +1,79 @@
+package jpabook.jpashop.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jpabook.jpashop.exception.QueryBudgetExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청 1건의 SQL 수 검사
+ * 1. @QueryBudget 초과
+ * 2. 같은 모양의 SQL이 repeatThreshold번 이상 반복(N+1 의심 : 지연 로딩, 루프 안 조회)
+ * 뷰 렌더링(Thymeleaf), JSON 직렬화 중 지연 로딩까지 포함하도록 필터에서 집계
+ * 검사 전에 RequestQueryListener(메트릭 기록 등)에 먼저 넘김 -> 위반 예외가 나도 메트릭은 남음
+ * 핸들러가 예외를 던져도 finally에서 넘김, 예산 검사는 정상 종료한 요청만(원래 예외를 가리지 않도록)
+ * fail-on-violation=true면 응답 본문을 버퍼에 모았다가 검사를 통과해야 내보냄
+ * -> 위반 응답이 200으로 나가지 않고 예외(500)가 됨, 스트리밍 응답도 메모리에 모이므로 테스트/개발용
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryBudgetProperties properties;
+    private final ObjectProvider<RequestQueryListener> listeners;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryContext context = QueryContext.start(request.getMethod() + " " + request.getRequestURI());
+        ContentCachingResponseWrapper buffered = properties.isEnabled() && properties.isFailOnViolation()
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            //핸들러가 예외로 끝난 요청(쿼리가 폭주한 요청일 수 있음)도 메트릭은 기록
+            QueryContext.end();
+            listeners.orderedStream().forEach(listener -> listener.onRequestCompleted(context));
+        }
+        if (properties.isEnabled()) {
+            verify(context); //위반이면 여기서 예외 -> 버퍼에 모인 본문은 버려짐
+        }
+        if (buffered != null) {
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private void verify(QueryContext context) {
+        List<String> violations = new ArrayList<>();
+        if (context.getBudget() >= 0 && context.getTotal() > context.getBudget()) {
+            violations.add("query budget exceeded: " + context.getTotal() + " > " + context.getBudget());
+        }
+        if (context.isDetectRepeats()) {
+            context.normalizedCounts().forEach((sql, count) -> {
+                if (count >= properties.getRepeatThreshold()) {
+                    violations.add("N+1 suspected: " + count + "x " + sql);
+                }
+            });
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        String message = context.getRequest() + " (" + context.getHandler() + ", queries=" + context.getTotal() + ")"
+                + "\n  " + String.join("\n  ", violations);
+        if (properties.isFailOnViolation()) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,26 @@
+package jpabook.jpashop.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 요청을 처리할 핸들러(메트릭 태그)와 @QueryBudget을 현재 QueryContext에 설정
+ */
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryContext context = QueryContext.current();
+        if (context != null && handler instanceof HandlerMethod handlerMethod) {
+            context.setHandler(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                context.setBudget(budget.value());
+                context.setDetectRepeats(budget.detectRepeats());
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.query-budget")
+public class QueryBudgetProperties {
+
+    //요청별 SQL 집계 사용 여부
+    private boolean enabled = true;
+
+    //위반 시 예외(테스트), false면 경고 로그만(운영)
+    private boolean failOnViolation = false;
+
+    //같은 모양의 SQL이 요청 1건에서 이 횟수 이상 실행되면 N+1로 판단
+    private int repeatThreshold = 10;
+}
@@ -0,0 +1,89 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 요청 1건 동안의 영속성 계층 사용량 집계(요청 스레드에 묶임)
+ * - Hibernate SQL(StatementInspector) : 쿼리 예산, N+1 검사용
+ * - JDBC 실행 수/시간, 읽은 행 수(p6spy) : JdbcTemplate 등 Hibernate 밖 SQL 포함
+ * - 엔티티 로딩, 컬렉션 초기화, flush 횟수(Hibernate 이벤트)
+ * 요청 밖(스케줄러, 비동기 접수 writer, 병렬 IN 조회 스레드)에서 실행된 SQL은 집계하지 않음
+ */
+@Getter
+public class QueryContext {
+
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    @Setter
+    private String handler;
+    @Setter
+    private int budget = -1; //-1 : 제한 없음
+    @Setter
+    private boolean detectRepeats = true;
+    private int total;
+    private final Map<String, Integer> statements = new HashMap<>(); //원문 SQL별 실행 횟수(정규화는 요청 끝에 한 번)
+
+    private int jdbcExecutions;
+    private long jdbcNanos;
+    private long rowsRead;
+    private int entitiesLoaded;
+    private int collectionsInitialized;
+    private int flushes;
+
+    private QueryContext(String request) {
+        this.request = request;
+    }
+
+    public static QueryContext start(String request) {
+        QueryContext context = new QueryContext(request);
+        CURRENT.set(context);
+        return context;
+    }
+
+    public static QueryContext current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql) {
+        total++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    void jdbcExecuted(long nanos) {
+        jdbcExecutions++;
+        jdbcNanos += nanos;
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void collectionInitialized() {
+        collectionsInitialized++;
+    }
+
+    void flushed() {
+        flushes++;
+    }
+
+    //정규화한 SQL별 실행 횟수
+    public Map<String, Integer> normalizedCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        statements.forEach((sql, count) -> counts.merge(SqlNormalizer.normalize(sql), count, Integer::sum));
+        return counts;
+    }
+}
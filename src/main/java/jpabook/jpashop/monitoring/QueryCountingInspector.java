@@ -0,0 +1,18 @@
+package jpabook.jpashop.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate가 실행하는 모든 SQL을 현재 요청의 QueryContext에 기록(SQL은 바꾸지 않음)
+ */
+public class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryContext context = QueryContext.current();
+        if (context != null) {
+            context.record(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,9 @@
+package jpabook.jpashop.monitoring;
+
+/**
+ * 요청 1건이 끝났을 때 그 요청의 QueryContext를 받음(QueryBudgetFilter에서 예산 검사 전에 호출)
+ */
+public interface RequestQueryListener {
+
+    void onRequestCompleted(QueryContext context);
+}
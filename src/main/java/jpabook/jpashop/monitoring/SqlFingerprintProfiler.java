@@ -0,0 +1,108 @@
+package jpabook.jpashop.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * p6spy로 실행된 SQL을 모양(SqlNormalizer)별로 묶어 실행 횟수, 총/최대 시간, 읽은 행 수 집계
+ * 외부 APM 없이 부하를 차지하는 SQL을 찾기 위한 용도(/actuator/sqlprofile, 주기적 로그)
+ * 서버 시작(또는 reset) 이후 누적
+ */
+@Slf4j
+public class SqlFingerprintProfiler extends JdbcEventListener {
+
+    static final String OTHER = "other";
+
+    private final SqlProfileProperties properties;
+    //reset은 두 맵을 함께 새 객체로 교체 -> 기록 중인 스레드가 지운 맵에 다시 넣거나 옛 캐시를 쓰는 일 없음
+    private volatile Fingerprints fingerprints = new Fingerprints();
+
+    public SqlFingerprintProfiler(SqlProfileProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String sql = statementInformation.getSql();
+        if (sql != null) {
+            record(sql, timeElapsedNanos, e != null);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        String sql = resultSetInformation.getSql();
+        if (hasNext && sql != null) {
+            rowRead(sql);
+        }
+    }
+
+    void record(String sql, long nanos, boolean failed) {
+        fingerprints.statsOf(sql, properties.getMaxFingerprints()).record(nanos, failed);
+    }
+
+    void rowRead(String sql) {
+        fingerprints.statsOf(sql, properties.getMaxFingerprints()).rowRead();
+    }
+
+    public List<SqlFingerprintStats.Snapshot> top(int limit, Comparator<SqlFingerprintStats.Snapshot> order) {
+        return fingerprints.stats.values().stream()
+                .map(SqlFingerprintStats::snapshot)
+                .sorted(order.reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        fingerprints = new Fingerprints();
+    }
+
+    //총 실행 시간 상위 SQL 로그
+    @Scheduled(initialDelayString = "${jpashop.sql-profile.dump-interval-ms:300000}",
+            fixedDelayString = "${jpashop.sql-profile.dump-interval-ms:300000}")
+    public void dump() {
+        if (!properties.isDumpEnabled() || fingerprints.stats.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder("sql profile top ").append(properties.getTopN()).append(" by total time");
+        for (SqlFingerprintStats.Snapshot s : top(properties.getTopN(), Comparator.comparingDouble(SqlFingerprintStats.Snapshot::totalMs))) {
+            sb.append(String.format("%n  total=%.1fms count=%d avg=%.2fms p99<=%.2fms max=%.1fms rows=%d | %s",
+                    s.totalMs(), s.count(), s.avgMs(), s.p99Ms(), s.maxMs(), s.rows(), s.fingerprint()));
+        }
+        log.info(sb.toString());
+    }
+
+    private static final class Fingerprints {
+
+        private final Map<String, SqlFingerprintStats> stats = new ConcurrentHashMap<>();
+        //원문 SQL -> 통계(같은 PreparedStatement 문자열은 매번 정규화하지 않음)
+        private final Map<String, SqlFingerprintStats> bySql = new ConcurrentHashMap<>();
+
+        private SqlFingerprintStats statsOf(String sql, int maxFingerprints) {
+            SqlFingerprintStats cached = bySql.get(sql);
+            if (cached != null) {
+                return cached;
+            }
+            String fingerprint = SqlNormalizer.normalize(sql);
+            if (!stats.containsKey(fingerprint) && stats.size() >= maxFingerprints) {
+                fingerprint = OTHER;
+            }
+            SqlFingerprintStats result = stats.computeIfAbsent(fingerprint, SqlFingerprintStats::new);
+            if (bySql.size() < maxFingerprints * 4) { //IN절 길이별 원문이 여러 개일 수 있음
+                bySql.put(sql, result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL 모양 하나의 누적 통계(잠금 없음)
+ * 실행 시간 분포는 2의 거듭제곱 마이크로초 구간 히스토그램(1us, 2us, 4us ... ~ 35분)으로 분위수를 근사
+ */
+public class SqlFingerprintStats {
+
+    private static final int BUCKETS = 32;
+
+    private final String fingerprint;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    SqlFingerprintStats(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    void record(long nanos, boolean failed) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        histogram.incrementAndGet(bucket(nanos));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    void rowRead() {
+        rows.increment();
+    }
+
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = histogram.get(i);
+        }
+        long n = count.sum();
+        long total = totalNanos.sum();
+        return new Snapshot(fingerprint, n, toMillis(total), n == 0 ? 0 : toMillis(total / n),
+                toMillis(maxNanos.get()), percentile(buckets, 0.99), rows.sum(), errors.sum());
+    }
+
+    private static int bucket(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    //해당 구간의 상한(ms)
+    private static double percentile(long[] buckets, double p) {
+        long total = 0;
+        for (long b : buckets) {
+            total += b;
+        }
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target && target > 0) {
+                return (1L << (i + 1)) / 1_000.0;
+            }
+        }
+        return 0;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public record Snapshot(String fingerprint, long count, double totalMs, double avgMs, double maxMs,
+                           double p99Ms, long rows, long errors) {
+    }
+}
@@ -0,0 +1,26 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 같은 모양의 SQL을 하나로 묶기 위한 정규화
+ * 문자열/숫자 리터럴 -> ?, IN절 파라미터 개수 무시(in_clause_parameter_padding 단계별로 갈라지지 않도록), 공백 정리
+ */
+public final class SqlNormalizer {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlNormalizer() {
+    }
+
+    public static String normalize(String sql) {
+        String result = WHITESPACE.matcher(sql.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        result = STRING_LITERAL.matcher(result).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        return IN_LIST.matcher(result).replaceAll("in (...)");
+    }
+}
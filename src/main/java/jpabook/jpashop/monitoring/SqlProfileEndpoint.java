@@ -0,0 +1,46 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * GET /actuator/sqlprofile?limit=20&sort=total|count|max|avg|rows : SQL 모양별 상위 N개
+ * 잘못된 limit, sort는 400
+ * 통계 초기화는 HTTP로 열지 않음(인증 없이 운영 통계를 지울 수 있으므로) -> JMX만(SqlProfileJmxExtension)
+ */
+@Endpoint(id = "sqlprofile")
+@RequiredArgsConstructor
+public class SqlProfileEndpoint {
+
+    private final SqlFingerprintProfiler profiler;
+    private final SqlProfileProperties properties;
+
+    @ReadOperation
+    public List<SqlFingerprintStats.Snapshot> top(@Nullable Integer limit, @Nullable String sort) {
+        if (limit != null && limit < 1) {
+            throw new InvalidEndpointRequestException("limit must be positive: " + limit, "limit은 1 이상이어야 합니다.");
+        }
+        return profiler.top(limit != null ? limit : properties.getTopN(), comparator(sort));
+    }
+
+    private static Comparator<SqlFingerprintStats.Snapshot> comparator(String sort) {
+        if (sort == null) {
+            return Comparator.comparingDouble(SqlFingerprintStats.Snapshot::totalMs);
+        }
+        return switch (sort) {
+            case "total" -> Comparator.comparingDouble(SqlFingerprintStats.Snapshot::totalMs);
+            case "count" -> Comparator.comparingLong(SqlFingerprintStats.Snapshot::count);
+            case "max" -> Comparator.comparingDouble(SqlFingerprintStats.Snapshot::maxMs);
+            case "avg" -> Comparator.comparingDouble(SqlFingerprintStats.Snapshot::avgMs);
+            case "rows" -> Comparator.comparingLong(SqlFingerprintStats.Snapshot::rows);
+            default -> throw new InvalidEndpointRequestException("unknown sort: " + sort,
+                    "정렬 기준은 total, count, max, avg, rows 중 하나입니다.");
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.EndpointJmxExtension;
+
+/**
+ * sqlprofile 통계 초기화(JMX 전용)
+ * spring.jmx.enabled=true, management.endpoints.jmx.exposure.include에 sqlprofile을 넣어야 노출
+ * HTTP 엔드포인트(SqlProfileEndpoint)는 조회만
+ */
+@EndpointJmxExtension(endpoint = SqlProfileEndpoint.class)
+@RequiredArgsConstructor
+public class SqlProfileJmxExtension {
+
+    private final SqlFingerprintProfiler profiler;
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,23 @@
+package jpabook.jpashop.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.sql-profile")
+public class SqlProfileProperties {
+
+    //SQL 모양(fingerprint)별 실행 통계 수집 여부
+    private boolean enabled = true;
+
+    //모양 수 상한, 넘으면 나머지는 "other"로 합침(동적 SQL로 메모리가 늘어나지 않도록)
+    private int maxFingerprints = 2_000;
+
+    //로그/엔드포인트 기본 출력 개수
+    private int topN = 20;
+
+    //주기적으로 상위 SQL을 로그로 출력
+    private boolean dumpEnabled = true;
+    private long dumpIntervalMs = 300_000;
+}
@@ -0,0 +1,59 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트랜잭션 시작 ~ 커밋/롤백 시간(jpashop.db.transaction)
+ * 트랜잭션 매니저에 자동 등록됨(TransactionExecutionListener 빈)
+ * 같은 스레드의 중첩 트랜잭션(REQUIRES_NEW)은 시작 역순으로 끝나므로 스택으로 짝을 맞춤
+ */
+@RequiredArgsConstructor
+public class TransactionMetricsListener implements TransactionExecutionListener {
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        starts.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null) {
+            starts.get().poll();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "commit" : "commit_failure");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        Long start = starts.get().poll();
+        if (start == null) {
+            return;
+        }
+        QueryContext context = QueryContext.current();
+        Timer.builder("jpashop.db.transaction")
+                .tag("handler", context != null && context.getHandler() != null ? context.getHandler() : "none")
+                .tag("outcome", outcome)
+                .tag("readonly", String.valueOf(transaction.isReadOnly()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
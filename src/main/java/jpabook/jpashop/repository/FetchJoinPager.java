@@ -0,0 +1,64 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 컬렉션 fetch join 2단계 페이징
+ * 컬렉션 fetch join에 setFirstResult/setMaxResults를 걸면 전체 결과를 읽은 뒤 메모리에서 자름(HHH90003004, OOM 위험)
+ * 1단계 : 루트 엔티티 id만 정렬 + offset/limit으로 조회 -> DB에서 페이징(루트 행이 중복되지 않음)
+ * 2단계 : 그 id들만 where id in :ids로 fetch join -> 페이지 크기만큼의 그래프를 쿼리 1번에
+ * IN 조회 결과는 순서가 보장되지 않으므로 1단계 id 순서로 다시 정렬
+ * 페이지 크기는 MAX_PAGE_SIZE까지(2단계 IN절 파라미터 수, 한 번에 올리는 그래프 크기 제한)
+ */
+public final class FetchJoinPager {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private FetchJoinPager() {
+    }
+
+    /**
+     * @param idQuery 루트 id 조회(정렬 포함, 페이징 없이)
+     * @param fetcher 페이지 id 목록으로 그래프 fetch join 조회
+     * @param idOf    조회 결과에서 루트 id
+     */
+    public static <T, ID> List<T> fetch(TypedQuery<ID> idQuery, int offset, int limit,
+                                        Function<List<ID>, List<T>> fetcher, Function<T, ID> idOf) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset은 0 이상이어야 합니다. offset=" + offset);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit은 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다. limit=" + limit);
+        }
+        List<ID> ids = idQuery
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inIdOrder(ids, fetcher.apply(ids), idOf);
+    }
+
+    //fetch join 결과의 중복 루트(distinct 없이 조회한 경우)도 여기서 제거
+    static <T, ID> List<T> inIdOrder(List<ID> ids, List<T> results, Function<T, ID> idOf) {
+        Map<ID, T> byId = new HashMap<>(results.size() * 2);
+        for (T result : results) {
+            byId.putIfAbsent(idOf.apply(result), result);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T result = byId.get(id);
+            if (result != null) { //1단계와 2단계 사이에 삭제된 행은 빠짐
+                ordered.add(result);
+            }
+        }
+        return ordered;
+    }
+}
@@ -1,10 +1,12 @@
 package jpabook.jpashop.repository;
 
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.NotEnoughStockException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,7 +27,50 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    //IN절 한 번으로 조회
+    public List<Item> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return em.createQuery("select i from Item i where i.id in :ids", Item.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     public List<Item> findAll() {
         return em.createQuery("select i from Item i",Item.class).getResultList();
     }
-}
\ No newline at end of file
+
+    //재고 차감 : 조건부 UPDATE 한 문장으로 확인과 차감을 동시에(동시 주문에도 갱신 손실/초과 판매 없음)
+    //재고가 부족하면 갱신되는 행이 없음
+    //versioned : 버전도 올려서 동시에 엔티티로 수정하던 쪽(ItemService.updateItem)이 충돌을 감지하게 함
+    public boolean decreaseStock(Long itemId, int quantity) {
+        return em.createQuery("update versioned Item i" +
+                        " set i.stockQuantity = i.stockQuantity - :quantity" +
+                        " where i.id = :id and i.stockQuantity >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("id", itemId)
+                .executeUpdate() > 0;
+    }
+
+    public void increaseStock(Long itemId, int quantity) {
+        em.createQuery("update versioned Item i" +
+                        " set i.stockQuantity = i.stockQuantity + :quantity" +
+                        " where i.id = :id")
+                .setParameter("quantity", quantity)
+                .setParameter("id", itemId)
+                .executeUpdate();
+    }
+
+    public void removeStock(Item item, int quantity) {
+        if (!decreaseStock(item.getId(), quantity)) {
+            throw new NotEnoughStockException("need more stock");
+        }
+        em.refresh(item); //벌크 연산은 영속성 컨텍스트를 거치지 않음 -> DB 값으로 동기화
+    }
+
+    public void addStock(Item item, int quantity) {
+        increaseStock(item.getId(), quantity);
+        em.refresh(item);
+    }
+}
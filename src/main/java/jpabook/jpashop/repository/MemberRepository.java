@@ -1,13 +1,37 @@
 package jpabook.jpashop.repository;
 
 
+import jakarta.persistence.QueryHint;
 import jpabook.jpashop.domain.Member;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
     //select m from Member m where m.name = ?
     List<Member> findByName(String name);
-}
\ No newline at end of file
+
+    //select m.id from Member m where m.name = ? fetch first 1 rows only (uk_member_name 인덱스)
+    boolean existsByName(String name);
+
+    //회원 목록 키셋 페이징 : id 다음부터 limit개, 프로젝션 컬럼(id, name)만 조회
+    //select m.id, m.name from Member m where m.id > ? order by m.id fetch first ? rows only
+    List<MemberSummary> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    //이미 있는 이름만 조회(대량 가져오기 중복 확인, 청크당 1번)
+    @Query("select m.name from Member m where m.name in :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    //이름만 스트리밍(회원 이름 필터 적재용, 트랜잭션 안에서 사용 후 close)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select m.name from Member m")
+    Stream<String> streamAllNames();
+}
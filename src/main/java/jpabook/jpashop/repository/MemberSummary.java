@@ -0,0 +1,12 @@
+package jpabook.jpashop.repository;
+
+/**
+ * 회원 목록용 인터페이스 프로젝션
+ * 엔티티 대신 select m.id, m.name 결과를 그대로 담음 -> 영속성 컨텍스트/스냅샷/dirty checking 없음
+ */
+public interface MemberSummary {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,57 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 키셋(seek) 페이징 커서 - (orderDate, orderId)
+ * 클라이언트에는 내부 구조를 숨긴 토큰 문자열로만 노출
+ */
+@Getter
+public class OrderCursor {
+
+    private final LocalDateTime orderDate;
+    private final Long orderId;
+
+    //두 값 모두 키셋 조건에 쓰이므로 null 불가(null이면 다시 decode할 수 없는 토큰이 만들어짐)
+    public OrderCursor(LocalDateTime orderDate, Long orderId) {
+        this.orderDate = Objects.requireNonNull(orderDate, "orderDate");
+        this.orderId = Objects.requireNonNull(orderId, "orderId");
+    }
+
+    //페이지 마지막 주문으로 다음 페이지 커서 생성
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+
+    public String encode() {
+        String raw = orderDate + "," + orderId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //클라이언트가 보낸 토큰이므로 형식이 틀리면 400(InvalidPageRequestException)
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidPageRequestException("잘못된 커서입니다.");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",");
+            if (parts.length != 2) {
+                throw new InvalidPageRequestException("잘못된 커서입니다.");
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            //Base64 디코딩 실패, NumberFormatException 포함
+            throw new InvalidPageRequestException("잘못된 커서입니다.", e);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package jpabook.jpashop.repository;
 
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import jpabook.jpashop.domain.*;
@@ -8,16 +13,31 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static jpabook.jpashop.domain.QDelivery.delivery;
+import static jpabook.jpashop.domain.QMember.member;
+import static jpabook.jpashop.domain.QOrder.order;
+import static jpabook.jpashop.domain.QOrderItem.orderItem;
+import static jpabook.jpashop.domain.item.QItem.item;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderRepository {
 
     private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
 
     public void save(Order order) {
         em.persist(order);
@@ -92,9 +112,145 @@ public class OrderRepository {
         return query.getResultList();
     }
 
-//    public List<Order> findAll(OrderSearch orderSearch) {
-//
-//    }
+    //Querydsl 동적 검색 + 페이징
+    //member, delivery는 ToOne이라 fetch join해도 DB에서 페이징됨
+    public Page<Order> search(OrderSearch orderSearch, Pageable pageable) {
+        List<Order> content = searchQuery(orderSearch)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        //count 쿼리는 fetch join 없이, 회원 이름 조건이 있을 때만 member 조인
+        JPAQuery<Long> countQuery = queryFactory
+                .select(order.count())
+                .from(order);
+        if (StringUtils.hasText(orderSearch.getMemberName())) {
+            countQuery.join(order.member, member);
+        }
+        countQuery.where(searchConditions(orderSearch));
+
+        //첫 페이지 결과가 size보다 작거나 마지막 페이지면 count 쿼리 생략
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    //count 쿼리 없이 limit + 1개 조회해서 다음 페이지 여부만 판단
+    public Slice<Order> searchSlice(OrderSearch orderSearch, Pageable pageable) {
+        List<Order> content = searchQuery(orderSearch)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, pageable.getPageSize()));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    //검색 조건에 맞는 주문 id를 id 순으로 limit개씩(키셋) 조회
+    public List<Long> searchIds(OrderSearch orderSearch, Long afterId, int limit) {
+        JPAQuery<Long> idQuery = queryFactory
+                .select(order.id)
+                .from(order);
+        if (StringUtils.hasText(orderSearch.getMemberName())) {
+            idQuery.join(order.member, member);
+        }
+        return idQuery
+                .where(searchConditions(orderSearch))
+                .where(afterId != null ? order.id.gt(afterId) : null)
+                .orderBy(order.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    private JPAQuery<Order> searchQuery(OrderSearch orderSearch) {
+        return queryFactory
+                .selectFrom(order)
+                .join(order.member, member).fetchJoin()
+                .join(order.delivery, delivery).fetchJoin()
+                .where(searchConditions(orderSearch))
+                .orderBy(order.id.desc());
+    }
+
+    //null인 조건은 where에서 무시됨
+    private BooleanExpression[] searchConditions(OrderSearch orderSearch) {
+        return new BooleanExpression[]{
+                statusEq(orderSearch.getOrderStatus()),
+                memberNameStartsWith(orderSearch.getMemberName()),
+                itemNameStartsWith(orderSearch.getItemName()),
+                orderDateGoe(orderSearch.getOrderDateFrom()),
+                orderDateLt(orderSearch.getOrderDateTo())
+        };
+    }
+
+    private BooleanExpression statusEq(OrderStatus status) {
+        return status != null ? order.status.eq(status) : null;
+    }
+
+    //'%이름%' 대신 '이름%' -> 인덱스 사용 가능
+    private BooleanExpression memberNameStartsWith(String memberName) {
+        return StringUtils.hasText(memberName) ? member.name.startsWith(memberName) : null;
+    }
+
+    //주문상품 조인 대신 exists -> 주문 행이 중복되지 않아 페이징 가능
+    private BooleanExpression itemNameStartsWith(String itemName) {
+        if (!StringUtils.hasText(itemName)) {
+            return null;
+        }
+        return JPAExpressions
+                .selectOne()
+                .from(orderItem)
+                .join(orderItem.item, item)
+                .where(orderItem.order.eq(order),
+                        item.name.startsWith(itemName))
+                .exists();
+    }
+
+    private BooleanExpression orderDateGoe(LocalDateTime from) {
+        return from != null ? order.orderDate.goe(from) : null;
+    }
+
+    private BooleanExpression orderDateLt(LocalDateTime to) {
+        return to != null ? order.orderDate.lt(to) : null;
+    }
+
+    //==대량 취소==//
+    //취소 가능한 주문(주문 상태 + 배송완료 아님)만 골라서 행 잠금
+    //동시에 같은 주문을 취소해도 재고가 두 번 복구되지 않음
+    public List<Long> findCancelableIds(List<Long> orderIds) {
+        return em.createQuery("select o.id from Order o" +
+                        " where o.id in :orderIds" +
+                        " and o.status = :status" +
+                        " and not exists (select d.id from Delivery d" +
+                        " where d = o.delivery and d.status = :comp)", Long.class)
+                .setParameter("orderIds", orderIds)
+                .setParameter("status", OrderStatus.ORDER)
+                .setParameter("comp", DeliveryStatus.COMP)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    //상품별 주문 수량 합계(상품 id 순 -> 재고 UPDATE 순서를 고정해서 교착 상태 방지)
+    public Map<Long, Integer> sumCountByItem(List<Long> orderIds) {
+        List<Object[]> rows = em.createQuery("select oi.item.id, sum(oi.count) from OrderItem oi" +
+                        " where oi.order.id in :orderIds" +
+                        " group by oi.item.id", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+
+        Map<Long, Integer> result = new TreeMap<>();
+        for (Object[] row : rows) {
+            result.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return result;
+    }
+
+    public int cancelAll(List<Long> orderIds) {
+        return em.createQuery("update versioned Order o set o.status = :status where o.id in :orderIds")
+                .setParameter("status", OrderStatus.CANCEL)
+                .setParameter("orderIds", orderIds)
+                .executeUpdate();
+    }
 
     public List<Order> findAllWithMemberDelivery() {
         return em.createQuery("select o from Order o" +
@@ -103,16 +259,40 @@ public class OrderRepository {
                 , Order.class).getResultList();
     }
 
+    //xToOne만 fetch join -> 행 수가 늘지 않아 DB에서 페이징
     public List<Order> findAllWithMemberDelivery(int offset, int limit) {
-        return em.createQuery("select o from Order o" //+
-//                        " join fetch o.member m" +
-//                        " join fetch o.delivery"
+        return em.createQuery("select o from Order o" +
+                        " join fetch o.member m" +
+                        " join fetch o.delivery"
                 , Order.class)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
+    //키셋(seek) 페이징 : 커서(orderDate, id) 다음 행부터 limit개 조회
+    //offset은 앞 페이지 행을 전부 읽고 버리지만, 키셋은 (order_date, order_id) 인덱스로 바로 찾아감
+    //-> 몇 번째 페이지든 첫 페이지와 비용이 같음
+    public List<Order> findAllWithMemberDelivery(OrderCursor cursor, int limit) {
+        String jpql = "select o from Order o" +
+                " join fetch o.member m" +
+                " join fetch o.delivery d";
+        if (cursor != null) {
+            jpql += " where o.orderDate <= :orderDate" +
+                    " and (o.orderDate < :orderDate or o.id < :orderId)";
+        }
+        jpql += " order by o.orderDate desc, o.id desc";
+
+        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
+                .setMaxResults(limit); //xToOne fetch join이라 DB에서 limit 적용
+
+        if (cursor != null) {
+            query.setParameter("orderDate", cursor.getOrderDate())
+                    .setParameter("orderId", cursor.getOrderId());
+        }
+        return query.getResultList();
+    }
+
     //Order와 관련된 모든 데이터(Member, Delivery, OrderItems, Item)를 단 1쿼리로 즉시 로딩해서 N+1 문제를 방지
     public List<Order> findAllWithItem() {
         return em.createQuery(
@@ -133,4 +313,21 @@ public class OrderRepository {
          -> orderitem을 기준으로 페이징 함(order entity 기준이 아니라)
          */
     }
+
+    //findAllWithItem + 페이징 : 주문 id 페이지를 먼저 DB에서 자르고 그 주문들만 fetch join(FetchJoinPager)
+    //페이지당 쿼리 2번(id 1번 + 그래프 1번), 메모리 페이징 없음
+    public List<Order> findAllWithItem(int offset, int limit) {
+        TypedQuery<Long> idQuery = em.createQuery("select o.id from Order o order by o.id desc", Long.class);
+        return FetchJoinPager.fetch(idQuery, offset, limit,
+                ids -> em.createQuery(
+                        "select distinct o from Order o" +
+                                " join fetch o.member m" +
+                                " join fetch o.delivery d" +
+                                " join fetch o.orderItems oi" +
+                                " join fetch oi.item i" +
+                                " where o.id in :ids", Order.class)
+                        .setParameter("ids", ids)
+                        .getResultList(),
+                Order::getId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package jpabook.jpashop.repository.order.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * 주문 id 순으로 정렬된 OrderFlatDto 행을 한 번만 훑으면서 OrderQueryDto로 접음
+ * 주문 id가 바뀌는 순간 이전 주문은 완성된 것이므로 바로 내보냄(해시/그룹핑 없음)
+ */
+public class OrderFlatAssembler {
+
+    private OrderFlatAssembler() {
+    }
+
+    //주문 id 순서를 그대로 유지
+    public static List<OrderQueryDto> assemble(List<OrderFlatDto> rows) {
+        List<OrderQueryDto> result = new ArrayList<>();
+        forEachOrder(rows.iterator(), result::add);
+        return result;
+    }
+
+    //v6 방식 : 행마다 키 객체(OrderQueryDto)를 만들어 해시로 묶음(순서 보장 안 됨)
+    public static List<OrderQueryDto> groupByOrder(List<OrderFlatDto> rows) {
+        return rows.stream()
+                .collect(groupingBy(o -> new OrderQueryDto(o.getOrderId(),
+                                o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
+                        mapping(o -> new OrderItemQueryDto(o.getOrderId(),
+                                o.getItemName(), o.getOrderPrice(), o.getCount()), toList())
+                )).entrySet().stream()
+                .map(e -> new OrderQueryDto(e.getKey().getOrderId(),
+                        e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(),
+                        e.getKey().getAddress(), e.getValue()))
+                .collect(toList());
+    }
+
+    public static void forEachOrder(Iterator<OrderFlatDto> rows, Consumer<OrderQueryDto> sink) {
+        OrderQueryDto current = null;
+        while (rows.hasNext()) {
+            OrderFlatDto row = rows.next();
+            if (current == null || !current.getOrderId().equals(row.getOrderId())) {
+                if (current != null) {
+                    sink.accept(current); //이전 주문의 마지막 행이 지나감 -> 완성
+                }
+                current = new OrderQueryDto(row.getOrderId(), row.getName(), row.getOrderDate(),
+                        row.getOrderStatus(), row.getAddress(), new ArrayList<>());
+            }
+            current.getOrderItems().add(new OrderItemQueryDto(row.getOrderId(),
+                    row.getItemName(), row.getOrderPrice(), row.getCount()));
+        }
+        if (current != null) {
+            sink.accept(current);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package jpabook.jpashop.repository.order.query;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 주문 id 목록으로 주문상품을 IN절로 조회해서 주문 id별 맵으로 만듦(v5)
+ * id가 많으면 고정 크기 청크로 나눠서 조회 -> 거대한 SQL, 드라이버 파라미터 제한 회피
+ * parallel 설정 시 보조 스레드가 별도 트랜잭션(별도 커넥션)으로 청크를 나눠 가져가 동시에 조회
+ *
+ * OSIV에서는 요청 스레드가 이미 커넥션을 잡고 있으므로, 요청 스레드가 아직 시작도 못 한 작업을 기다리면
+ * 요청이 몰려 풀이 바닥났을 때 서로 커넥션을 기다리는 교착이 생김
+ * -> 요청 스레드도 자기 커넥션으로 청크를 가져가 조회하고,
+ *    보조 스레드는 커넥션을 실제로 얻은 뒤에만 청크를 가져감
+ *    (요청 스레드는 이미 커넥션을 쥐고 조회 중인 청크만 기다림 -> 풀이 바닥나도 혼자 끝까지 진행)
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderItemLoader {
+
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final OrderQueryProperties properties;
+    private final DataSource dataSource;
+
+    private ExecutorService executor;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        if (properties.isParallel()) {
+            checkParallelism();
+            executor = Executors.newFixedThreadPool(properties.getParallelism());
+            chunkTransaction = new TransactionTemplate(transactionManager);
+            chunkTransaction.setReadOnly(true);
+            chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+    }
+
+    //보조 스레드 커넥션은 요청 스레드 몫과 같은 풀에서 나가므로 풀 크기보다 작아야 함
+    private void checkParallelism() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                if (properties.getParallelism() >= poolSize) {
+                    throw new IllegalStateException("jpashop.order-query.parallelism(" + properties.getParallelism()
+                            + ")은 커넥션 풀 크기(" + poolSize + ")보다 작아야 합니다.");
+                }
+            }
+        } catch (SQLException e) {
+            //풀 크기를 알 수 없으면 검사 생략
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
+        List<List<Long>> chunks = chunk(orderIds, properties.getInChunkSize());
+
+        List<OrderItemQueryDto> orderItems = new ArrayList<>();
+        if (executor == null || chunks.size() <= 1) {
+            for (List<Long> chunk : chunks) {
+                orderItems.addAll(findOrderItems(chunk));
+            }
+            return groupByOrderId(orderItems);
+        }
+
+        //청크는 번호표(next)로 나눠 가짐, 결과는 청크 번호 자리에 저장
+        ChunkWork work = new ChunkWork(chunks);
+
+        int helpers = Math.min(properties.getParallelism(), chunks.size() - 1);
+        for (int i = 0; i < helpers; i++) {
+            executor.execute(() -> chunkTransaction.executeWithoutResult(status -> {
+                acquireConnection(); //커넥션을 얻기 전에는 청크를 가져가지 않음
+                work.drain(this::findOrderItems);
+            }));
+        }
+
+        //요청 스레드도 자기 커넥션으로 남은 청크를 조회
+        work.drain(this::findOrderItems);
+
+        //보조 스레드 전체가 아니라 가져간(= 커넥션을 쥐고 조회 중인) 청크만 기다림
+        for (List<OrderItemQueryDto> result : work.await()) {
+            orderItems.addAll(result);
+        }
+        return groupByOrderId(orderItems);
+    }
+
+    private static class ChunkWork {
+
+        private final List<List<Long>> chunks;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicReferenceArray<List<OrderItemQueryDto>> results;
+        private final CountDownLatch done;
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        ChunkWork(List<List<Long>> chunks) {
+            this.chunks = chunks;
+            this.results = new AtomicReferenceArray<>(chunks.size());
+            this.done = new CountDownLatch(chunks.size());
+        }
+
+        //실패가 생긴 뒤에도 청크는 끝까지 가져가되 조회만 건너뜀 -> 모든 청크가 done에 셈해짐
+        void drain(Function<List<Long>, List<OrderItemQueryDto>> loader) {
+            int index;
+            while ((index = next.getAndIncrement()) < chunks.size()) {
+                try {
+                    if (failure.get() == null) {
+                        results.set(index, loader.apply(chunks.get(index)));
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }
+        }
+
+        List<List<OrderItemQueryDto>> await() {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("주문상품 조회 중 인터럽트", e);
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            List<List<OrderItemQueryDto>> ordered = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                ordered.add(results.get(i));
+            }
+            return ordered;
+        }
+    }
+
+    //지연 커넥션(LazyConnectionDataSourceProxy)이어도 실제 커넥션을 지금 얻도록 메타데이터 조회
+    private void acquireConnection() {
+        em.unwrap(Session.class).doWork(connection -> connection.getMetaData());
+    }
+
+    //메모리에서 주문 id별로 묶음
+    public static Map<Long, List<OrderItemQueryDto>> groupByOrderId(List<OrderItemQueryDto> orderItems) {
+        return orderItems.stream()
+                .collect(Collectors.groupingBy(orderItemQueryDto
+                        -> orderItemQueryDto.getOrderId()));
+    }
+
+    private List<OrderItemQueryDto> findOrderItems(List<Long> orderIds) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count) " +
+                                "from OrderItem oi " +
+                                "join oi.item i " +
+                                "where oi.order.id in :orderIds", OrderItemQueryDto.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    private static List<List<Long>> chunk(List<Long> ids, int size) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += size) {
+            chunks.add(ids.subList(from, Math.min(from + size, ids.size())));
+        }
+        return chunks;
+    }
+}
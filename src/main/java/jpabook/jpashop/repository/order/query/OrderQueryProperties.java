@@ -0,0 +1,20 @@
+package jpabook.jpashop.repository.order.query;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.order-query")
+public class OrderQueryProperties {
+
+    //IN절 하나에 넣을 주문 id 개수
+    //2의 제곱수로 두면 in_clause_parameter_padding과 맞아서 SQL 모양이 고정됨(문장 캐시 재사용)
+    private int inChunkSize = 512;
+
+    //청크를 별도 커넥션으로 동시에 조회할지 여부
+    private boolean parallel = false;
+
+    //동시 조회 스레드 수(커넥션 풀 크기보다 충분히 작게)
+    private int parallelism = 4;
+}
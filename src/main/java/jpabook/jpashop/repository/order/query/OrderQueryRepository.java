@@ -2,17 +2,20 @@ package jpabook.jpashop.repository.order.query;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderQueryRepository {
 
     private final EntityManager em;
+    private final OrderItemLoader orderItemLoader;
 
     //쿼리 1번만 실행
     public List<OrderFlatDto> findAllByDto_flat() {
@@ -26,6 +29,51 @@ public class OrderQueryRepository {
                 .getResultList();
     }
 
+    //페이징 가능한 플랫 조회 : 주문 id 페이지를 먼저 조회하고(1번) 그 주문들만 플랫 조인(1번)
+    //limit이 주문상품 행이 아니라 주문 단위로 적용됨
+    //서브쿼리 안의 limit/offset은 H2 등 일부 DB에서만 동작하므로 id 조회를 분리(FetchJoinPager와 같은 2단계)
+    //플랫 조인은 주문상품이 있는 주문만 나오므로 id 페이지도 주문상품이 있는 주문만 -> 빈 주문이 페이지 자리를 차지하지 않음
+    public List<OrderFlatDto> findAllByDto_flat(int offset, int limit) {
+        List<Long> orderIds = em.createQuery(
+                        "select o.id from Order o " +
+                                "where exists (select oi.id from OrderItem oi where oi.order = o) " +
+                                "order by o.id", Long.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                                "from Order o " +
+                                "join o.member m " +
+                                "join o.delivery d " +
+                                "join o.orderItems oi " +
+                                "join oi.item i " +
+                                "where o.id in :orderIds " +
+                                "order by o.id, oi.id", OrderFlatDto.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    //전체 내보내기용 : List로 모으지 않고 forward-only 커서로 fetchSize만큼씩 읽어옴
+    //주문 id 순으로 정렬해야 같은 주문의 행이 연속으로 나옴(OrderFlatAssembler)
+    //반드시 트랜잭션 안에서 사용하고 다 쓰면 close
+    public Stream<OrderFlatDto> streamAllByDto_flat(int fetchSize) {
+        return em.createQuery(
+                        "select new jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+                                "from Order o " +
+                                "join o.member m " +
+                                "join o.delivery d " +
+                                "join o.orderItems oi " +
+                                "join oi.item i " +
+                                "order by o.id, oi.id", OrderFlatDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
     //쿼리 실행 2번
     public List<OrderQueryDto> findAllByDto_optimization() {
         List<OrderQueryDto> result = findOrders();
@@ -39,23 +87,21 @@ public class OrderQueryRepository {
         return result;
     }
 
-    //Id값을 IN조건으로 가져옴
-    //쿼리 한 번 보내서 메모리에 맵으로 가져옴
-    private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
-        List<OrderItemQueryDto> orderItems = em.createQuery(
-                        "select new jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count) " +
-                                "from OrderItem oi " +
-                                "join oi.item i " +
-                                "where oi.order.id in :orderIds", OrderItemQueryDto.class)
-                .setParameter("orderIds", orderIds)
-                .getResultList();
+    //v5 + 페이징 : 주문(ToOne)만 offset/limit으로 자르고, 주문상품은 그 페이지의 id로만 IN 조회
+    public List<OrderQueryDto> findAllByDto_optimization(int offset, int limit) {
+        List<OrderQueryDto> result = findOrders(offset, limit);
+
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(toOrderIds(result));
 
-        //최적화
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
-                .collect(Collectors.groupingBy(orderItemQueryDto
-                        -> orderItemQueryDto.getOrderId()));
+        result.forEach(o -> o.setOrderItems(orderItemMap.getOrDefault(o.getOrderId(), List.of())));
 
-        return orderItemMap;
+        return result;
+    }
+
+    //Id값을 IN조건으로 가져옴
+    //id가 많으면 청크로 나눠서(필요하면 동시에) 조회 후 메모리에서 맵으로 합침
+    private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
+        return orderItemLoader.findOrderItemMap(orderIds);
     }
 
     private static List<Long> toOrderIds(List<OrderQueryDto> result) {
@@ -94,4 +140,15 @@ public class OrderQueryRepository {
                         "join o.delivery d", OrderQueryDto.class)
                 .getResultList();
     }
+
+    private List<OrderQueryDto> findOrders(int offset, int limit) {
+        return em.createQuery("select new jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                        "from Order o " +
+                        "join o.member m " +
+                        "join o.delivery d " +
+                        "order by o.id", OrderQueryDto.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 }
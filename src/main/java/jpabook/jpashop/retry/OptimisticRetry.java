@@ -0,0 +1,15 @@
+package jpabook.jpashop.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌 시 트랜잭션을 새로 시작해서 재시도
+ * 재시도 횟수, 대기 시간은 jpashop.retry 설정
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+}
@@ -0,0 +1,99 @@
+package jpabook.jpashop.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.StaleStateException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @OptimisticRetry 메서드에서 낙관적 락 충돌이 나면 대기 후 재시도
+ * 트랜잭션 AOP보다 바깥에서 동작해야 시도마다 새 트랜잭션(새 영속성 컨텍스트)으로 다시 읽음
+ * 엔티티별 충돌/재시도/포기 횟수를 Micrometer 카운터로 기록(/actuator/metrics)
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1) //@Transactional(LOWEST_PRECEDENCE)보다 먼저
+@RequiredArgsConstructor
+public class OptimisticRetryAspect {
+
+    private final RetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(jpabook.jpashop.retry.OptimisticRetry)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        //바깥 트랜잭션 안에서 호출되면 여기서 재시도해도 같은 트랜잭션 -> 바깥에 맡김
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        long backoff = properties.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+
+                String entity = entityName(e);
+                meterRegistry.counter("jpashop.optimistic.conflicts", "entity", entity).increment();
+                if (attempt >= properties.getMaxAttempts()) {
+                    meterRegistry.counter("jpashop.optimistic.exhausted", "entity", entity).increment();
+                    throw e;
+                }
+                meterRegistry.counter("jpashop.optimistic.retries", "entity", entity).increment();
+                log.debug("optimistic lock conflict. method={}, entity={}, attempt={}",
+                        joinPoint.getSignature().toShortString(), entity, attempt);
+
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1)); //동시에 재시도하지 않도록 지터
+                backoff = Math.min((long) (backoff * properties.getMultiplier()),
+                        properties.getMaxBackoff().toMillis());
+            }
+        }
+    }
+
+    //커밋 시점 예외는 RollbackException 등으로 감싸져 올 수 있어 원인을 따라가며 확인
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String entityName(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ObjectOptimisticLockingFailureException ex && ex.getPersistentClassName() != null) {
+                return simpleName(ex.getPersistentClassName());
+            }
+            if (t instanceof StaleObjectStateException ex && ex.getEntityName() != null) {
+                return simpleName(ex.getEntityName());
+            }
+            if (t instanceof OptimisticLockException ex && ex.getEntity() != null) {
+                return ex.getEntity().getClass().getSimpleName();
+            }
+        }
+        return "unknown";
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.retry")
+public class RetryProperties {
+
+    //최초 시도 포함 최대 시도 횟수
+    private int maxAttempts = 3;
+
+    //첫 재시도 전 대기 시간, 이후 multiplier 배씩 증가(최대 maxBackoff)
+    private Duration initialBackoff = Duration.ofMillis(20);
+    private double multiplier = 2.0;
+    private Duration maxBackoff = Duration.ofMillis(500);
+}
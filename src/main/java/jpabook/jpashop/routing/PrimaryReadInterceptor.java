@@ -0,0 +1,37 @@
+package jpabook.jpashop.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jpabook.jpashop.change.ConditionalGet;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * @ConditionalGet 핸들러의 읽기는 읽기 전용 트랜잭션이어도 주 DB로
+ * ETag(ChangeTracker)는 주 DB 커밋 기준으로 올라가는데, 뒤처진 복제본에서 읽으면 새 ETag에 이전 데이터가 붙음
+ * -> 클라이언트는 다음 쓰기까지 그 오래된 응답에 계속 304를 받음(read-your-writes는 쓴 클라이언트만 보호)
+ * 바뀐 게 없으면 어차피 304로 DB를 읽지 않으므로 주 DB 부하는 바뀐 경우만큼만 늘어남
+ */
+public class PrimaryReadInterceptor implements HandlerInterceptor {
+
+    private static final ThreadLocal<Boolean> CURRENT = new ThreadLocal<>();
+
+    //요청 밖(스케줄러, intake 워커 등)은 항상 false
+    static boolean isActive() {
+        return Boolean.TRUE.equals(CURRENT.get());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(ConditionalGet.class)) {
+            CURRENT.set(Boolean.TRUE);
+        }
+        return true;
+    }
+
+    //304로 핸들러를 건너뛰거나 예외로 끝나도 호출됨
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        CURRENT.remove();
+    }
+}
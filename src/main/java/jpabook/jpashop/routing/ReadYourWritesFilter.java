@@ -0,0 +1,99 @@
+package jpabook.jpashop.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * read-your-writes : 방금 쓴 데이터를 복제 지연 때문에 못 읽는 일이 없도록
+ * 쓰기 트랜잭션이 커밋되면 그 요청의 남은 읽기는 주 DB로 보내고,
+ * 응답에 쿠키(만료 시각)를 남겨 readYourWrites 시간 동안 같은 클라이언트의 다음 요청도 주 DB로
+ * 쿠키라서 서버가 여러 대여도 동작함
+ * 트랜잭션 매니저에 자동 등록됨(TransactionExecutionListener 빈)
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter implements TransactionExecutionListener, Ordered {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private final Duration window;
+    private final String cookieName;
+
+    public ReadYourWritesFilter(ReplicaProperties properties) {
+        this.window = properties.getReadYourWrites();
+        this.cookieName = properties.getReadYourWritesCookie();
+    }
+
+    //요청 밖(스케줄러, intake 워커 등)은 항상 false
+    static boolean isPinned() {
+        State state = CURRENT.get();
+        return state != null && state.pinned;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 30; //bulkhead, 쿼리 집계 안쪽
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return window.isZero();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        State state = new State(response);
+        Cookie cookie = WebUtils.getCookie(request, cookieName);
+        if (cookie != null) {
+            try {
+                state.pinned = Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+            } catch (NumberFormatException e) {
+                //잘못된 쿠키는 무시
+            }
+        }
+
+        CURRENT.set(state);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        State state = CURRENT.get();
+        if (state == null || commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        state.pinned = true;
+        if (!state.cookieWritten && !state.response.isCommitted()) {
+            Cookie cookie = new Cookie(cookieName, String.valueOf(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            state.response.addCookie(cookie);
+            state.cookieWritten = true;
+        }
+    }
+
+    private static class State {
+        private final HttpServletResponse response;
+        private boolean pinned;
+        private boolean cookieWritten;
+
+        State(HttpServletResponse response) {
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package jpabook.jpashop.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.replica")
+public class ReplicaProperties {
+
+    //읽기 전용 트랜잭션을 복제본으로 보낼지 여부(false면 spring.datasource 하나만 사용)
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    //복제본 선택 방식
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    //상태 확인 주기, 확인 1번의 최대 시간(커넥션 획득 + isValid)
+    private long healthCheckIntervalMs = 5000;
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    //쓰기 커밋 후 이 시간 동안 같은 클라이언트의 읽기는 주 DB로(복제 지연보다 길게), 0이면 끔
+    private Duration readYourWrites = Duration.ZERO;
+    private String readYourWritesCookie = "jpashop-rw";
+
+    @Getter @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(1); //복제본이 죽었으면 빨리 포기하고 다른 곳으로
+    }
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_CONNECTIONS
+    }
+}
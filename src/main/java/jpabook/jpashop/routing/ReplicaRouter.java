@@ -0,0 +1,143 @@
+package jpabook.jpashop.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주 DB + 복제본 커넥션 풀 묶음
+ * readOnlyDataSource : 살아 있는 복제본 중 하나(라운드 로빈 또는 사용 중 커넥션이 가장 적은 곳)에서 커넥션을 받음
+ * - 커넥션을 못 받으면 그 복제본을 내리고 다음 복제본, 모두 안 되면 주 DB
+ * - read-your-writes 구간이거나 @ConditionalGet 핸들러(PrimaryReadInterceptor)면 바로 주 DB
+ * 내려간 복제본은 상태 확인(healthCheckIntervalMs)에서 다시 응답하면 복귀
+ * DataSource 빈이 아님 -> p6spy는 라우팅 DataSource 빈(LazyConnectionDataSourceProxy)에만 한 번 적용됨
+ */
+@Slf4j
+public class ReplicaRouter implements Closeable {
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final Duration healthCheckTimeout;
+    private final AtomicInteger next = new AtomicInteger();
+    private final DataSource readOnlyDataSource = new ReadOnlyDataSource();
+
+    public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicaPools, ReplicaProperties properties) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.selection = properties.getSelection();
+        this.healthCheckTimeout = properties.getHealthCheckTimeout();
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReadOnlyDataSource() {
+        return readOnlyDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${jpashop.replica.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        int timeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                healthy = connection.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            replica.setHealthy(healthy);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        if (!ReadYourWritesFilter.isPinned() && !PrimaryReadInterceptor.isActive()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    log.warn("replica connection failed. replica={}", replica.pool.getPoolName(), e);
+                    replica.setHealthy(false);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    //살아 있는 복제본을 시도할 순서대로
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.size() <= 1) {
+            return healthy;
+        }
+        if (selection == ReplicaProperties.Selection.LEAST_CONNECTIONS) {
+            healthy.sort(Comparator.comparingInt(Replica::load));
+            return healthy;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), healthy.size());
+        List<Replica> ordered = new ArrayList<>(healthy.subList(start, healthy.size()));
+        ordered.addAll(healthy.subList(0, start));
+        return ordered;
+    }
+
+    private static class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        void setHealthy(boolean healthy) {
+            if (this.healthy != healthy) {
+                log.warn("replica {} is {}", pool.getPoolName(), healthy ? "up" : "down");
+            }
+            this.healthy = healthy;
+        }
+
+        //사용 중 + 대기 중 커넥션 수
+        int load() {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            return mxBean == null ? 0 : mxBean.getActiveConnections() + mxBean.getThreadsAwaitingConnection();
+        }
+    }
+
+    private class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection();
+        }
+
+        //HikariDataSource와 같이 지원하지 않음(계정은 풀 설정으로만)
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("복제본 커넥션은 설정된 계정으로만 받을 수 있습니다.");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package jpabook.jpashop.routing;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션 -> 복제본, 나머지 -> 주 DB(jpashop.replica.enabled)
+ * ReplicaRoutingDataSource가 TransactionSynchronizationManager.isCurrentTransactionReadOnly()로 고름
+ * LazyConnectionDataSourceProxy가 실제 커넥션을 첫 SQL 실행 때 받음
+ * -> 트랜잭션 시작 시점(동기화 전)이 아니라 @Transactional(readOnly = true)가 반영된 뒤에 라우팅
+ * (커넥션 readOnly로 고르는 setReadOnlyDataSource는 쓰지 않음 : 아래 커넥션 반환 모드에서는
+ *  HibernateJpaDialect가 커넥션 준비(setReadOnly)를 건너뛰어 항상 주 DB로 감)
+ * OSIV는 기본 설정(DELAYED_ACQUISITION_AND_HOLD)에서 처음 받은 커넥션을 요청 끝까지 잡음
+ * -> 읽기 후 같은 요청의 쓰기가 복제본 커넥션을 쓰지 않도록 트랜잭션마다 커넥션 반환
+ * @ConditionalGet 핸들러는 읽기 전용이어도 주 DB(PrimaryReadInterceptor, ETag가 주 DB 커밋 기준)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpashop.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    //spring.datasource(.hikari) 설정으로 주 DB 풀, jpashop.replica.replicas로 복제본 풀
+    @Bean(destroyMethod = "close")
+    ReplicaRouter replicaRouter(DataSourceProperties dataSourceProperties, ReplicaProperties properties,
+                                Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        //주 DB 풀 메트릭은 스프링 부트가 DataSource 빈을 unwrap해서 등록, 복제본 풀은 빈이 아니므로 직접 등록
+
+        List<HikariDataSource> replicas = properties.getReplicas().stream()
+                .map(replica -> replicaPool(replica, dataSourceProperties, meterRegistry))
+                .toList();
+        return new ReplicaRouter(primary, replicas, properties);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaRouter));
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    //서블릿 필터 + 트랜잭션 실행 리스너로 자동 등록
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(ReplicaProperties properties) {
+        return new ReadYourWritesFilter(properties);
+    }
+
+    //ETag와 응답 데이터가 같은 DB 기준이 되도록 @ConditionalGet 핸들러는 주 DB에서 읽음
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PrimaryReadInterceptor());
+    }
+
+    private static HikariDataSource replicaPool(ReplicaProperties.Replica replica, DataSourceProperties primary,
+                                                MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + replica.getName());
+        config.setJdbcUrl(replica.getUrl());
+        config.setUsername(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : primary.determineUsername());
+        config.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        config.setDriverClassName(primary.determineDriverClassName());
+        config.setMaximumPoolSize(replica.getMaximumPoolSize());
+        config.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        config.setReadOnly(true);
+        config.setInitializationFailTimeout(-1); //복제본이 죽어 있어도 기동(상태 확인에서 내림)
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,34 @@
+package jpabook.jpashop.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 현재 트랜잭션이 읽기 전용이면 복제본(ReplicaRouter.readOnlyDataSource), 아니면 주 DB
+ * 커넥션의 readOnly 설정이 아니라 트랜잭션 동기화 상태로 판단
+ * -> LazyConnectionDataSourceProxy로 감싸서 첫 SQL 실행 때(트랜잭션 동기화가 시작된 뒤) 커넥션을 받아야 함
+ * 트랜잭션 밖(OSIV 지연 로딩 등)은 주 DB
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    public ReplicaRoutingDataSource(ReplicaRouter replicaRouter) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, replicaRouter.getPrimary());
+        targets.put(Target.REPLICA, replicaRouter.getReadOnlyDataSource());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(replicaRouter.getPrimary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
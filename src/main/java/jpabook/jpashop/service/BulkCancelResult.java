@@ -0,0 +1,33 @@
+package jpabook.jpashop.service;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 취소 결과
+ * skipped : 이미 취소됐거나 배송완료, 없는 주문
+ * failed  : 청크 트랜잭션이 실패해서 롤백된 주문(취소 여부를 알 수 없으므로 failedOrderIds로 다시 요청)
+ */
+@Data
+public class BulkCancelResult {
+
+    private int requested;
+    private int canceled;
+    private int skipped;
+    private int failed;
+    private List<Long> failedOrderIds = new ArrayList<>();
+
+    public void add(int requested, int canceled) {
+        this.requested += requested;
+        this.canceled += canceled;
+        this.skipped += requested - canceled;
+    }
+
+    public void fail(List<Long> orderIds) {
+        this.requested += orderIds.size();
+        this.failed += orderIds.size();
+        this.failedOrderIds.addAll(orderIds);
+    }
+}
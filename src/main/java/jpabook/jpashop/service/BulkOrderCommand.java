@@ -0,0 +1,28 @@
+package jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 주문 1건 : 회원 1명 + 주문상품 여러 개
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderCommand {
+
+    private Long memberId;
+    private List<Line> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long itemId;
+        private int count;
+    }
+}
@@ -0,0 +1,48 @@
+package jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 대량 주문 결과
+ * orderIds는 요청 순서와 같은 위치에 주문 id(실패한 주문은 null)
+ */
+@Data
+public class BulkOrderResult {
+
+    private int requested;
+    private int succeeded;
+    private List<Long> orderIds;
+    private List<Failure> failures = new ArrayList<>();
+
+    public BulkOrderResult(int requested) {
+        this.requested = requested;
+        this.orderIds = Arrays.asList(new Long[requested]);
+    }
+
+    public void success(int index, Long orderId) {
+        orderIds.set(index, orderId);
+        succeeded++;
+    }
+
+    public void fail(int index, String reason) {
+        failures.add(new Failure(index, reason, false));
+    }
+
+    //주문 자체가 아니라 청크 커밋이 실패해서 롤백된 경우(같은 주문을 다시 요청하면 성공할 수 있음)
+    public void failChunk(int index, String reason) {
+        failures.add(new Failure(index, reason, true));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Failure {
+        private int index;
+        private String reason;
+        private boolean retryable;
+    }
+}
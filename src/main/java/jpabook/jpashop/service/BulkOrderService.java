@@ -0,0 +1,277 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jpabook.jpashop.change.ChangeTracker;
+import jpabook.jpashop.change.TrackedResource;
+import jpabook.jpashop.domain.*;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.InvalidOrderRequestException;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.inventory.InventoryLedger;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 대량 주문
+ * 청크마다 트랜잭션 1번 : 회원/상품은 IN절로 한 번에 조회, insert는 JDBC 배치(hibernate.jdbc.batch_size)
+ * 주문 1건이 실패해도(재고 부족, 없는 회원/상품) 그 주문만 빠지고 나머지는 저장
+ *
+ * 대량 취소
+ * 엔티티를 하나씩 읽어 cancel() 하지 않고 청크마다 집합 단위 UPDATE
+ * (취소 가능 여부 확인 1번 + 상품별 재고 복구 1번씩 + 주문 상태 변경 1번)
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final EntityManager em;
+    private final MemberRepository memberRepository;
+    private final ItemRepository itemRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryLedger inventoryLedger;
+    private final StockService stockService;
+    private final ChangeTracker changeTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkOrderService(EntityManager em, MemberRepository memberRepository, ItemRepository itemRepository,
+                            OrderRepository orderRepository, InventoryLedger inventoryLedger, StockService stockService,
+                            ChangeTracker changeTracker, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.memberRepository = memberRepository;
+        this.itemRepository = itemRepository;
+        this.orderRepository = orderRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.stockService = stockService;
+        this.changeTracker = changeTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkOrderResult order(List<BulkOrderCommand> commands) {
+        BulkOrderResult result = new BulkOrderResult(commands.size());
+
+        for (int from = 0; from < commands.size(); from += CHUNK_SIZE) {
+            List<BulkOrderCommand> chunk = commands.subList(from, Math.min(from + CHUNK_SIZE, commands.size()));
+            Object[] outcomes = new Object[chunk.size()]; //주문 id(Long) 또는 실패 사유(String)
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> orderChunk(chunk, outcomes));
+            } catch (RuntimeException e) {
+                //커밋 실패(제약 조건 위반 등) -> 청크 전체 롤백, 그 청크 주문만 실패 처리
+                log.warn("bulk order chunk failed. from={}, size={}", from, chunk.size(), e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    result.failChunk(from + i, "chunk rollback: " + e.getMessage());
+                }
+                continue;
+            }
+
+            //커밋된 뒤에만 결과 반영
+            for (int i = 0; i < chunk.size(); i++) {
+                if (outcomes[i] instanceof Long orderId) {
+                    result.success(from + i, orderId);
+                } else {
+                    result.fail(from + i, (String) outcomes[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    //주문 id 목록으로 대량 취소
+    public BulkCancelResult cancel(List<Long> orderIds) {
+        List<Long> ids = orderIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        BulkCancelResult result = new BulkCancelResult();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            cancelChunk(chunk, result);
+        }
+        return result;
+    }
+
+    //검색 조건에 맞는 주문 대량 취소 : 주문 id를 키셋으로 청크씩 끊어서 처리
+    //조건이 하나도 없으면 전체 주문이 대상 -> 거절
+    public BulkCancelResult cancel(OrderSearch orderSearch) {
+        if (!hasCondition(orderSearch)) {
+            throw new InvalidOrderRequestException("검색 조건이 하나 이상 필요합니다.");
+        }
+        BulkCancelResult result = new BulkCancelResult();
+        Long lastId = null;
+        while (true) {
+            List<Long> chunk = orderRepository.searchIds(orderSearch, lastId, CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            cancelChunk(chunk, result);
+            lastId = chunk.get(chunk.size() - 1);
+        }
+        return result;
+    }
+
+    //OrderRepository 검색과 같은 기준(빈 문자열은 조건 아님)
+    private static boolean hasCondition(OrderSearch orderSearch) {
+        return orderSearch.getOrderStatus() != null
+                || StringUtils.hasText(orderSearch.getMemberName())
+                || StringUtils.hasText(orderSearch.getItemName())
+                || orderSearch.getOrderDateFrom() != null
+                || orderSearch.getOrderDateTo() != null;
+    }
+
+    private void cancelChunk(List<Long> chunk, BulkCancelResult result) {
+        try {
+            Integer canceled = transactionTemplate.execute(status -> cancelInTransaction(chunk));
+            result.add(chunk.size(), canceled == null ? 0 : canceled);
+        } catch (RuntimeException e) {
+            //청크 전체 롤백(재고 복구 포함) -> 건너뛴 것이 아니라 실패로 보고
+            log.warn("bulk cancel chunk failed. size={}", chunk.size(), e);
+            result.fail(chunk);
+        }
+    }
+
+    private int cancelInTransaction(List<Long> chunk) {
+        //벌크 UPDATE는 영속성 컨텍스트를 거치지 않음 -> 대기 중인 변경을 먼저 반영
+        em.flush();
+
+        //주문 상태 + 배송완료 여부를 SQL에서 확인(배송완료, 이미 취소된 주문은 제외)
+        List<Long> cancelable = orderRepository.findCancelableIds(chunk);
+        if (cancelable.isEmpty()) {
+            return 0;
+        }
+
+        //주문상품마다가 아니라 상품별로 합쳐서 재고 복구(단건 취소와 같은 경로)
+        stockService.returnStock(orderRepository.sumCountByItem(cancelable));
+
+        int updated = orderRepository.cancelAll(cancelable);
+        changeTracker.changed(TrackedResource.ORDERS);
+
+        //이미 로딩된 Order/Item이 DB와 달라졌으므로 비움(다음 조회 시 다시 로딩)
+        em.clear();
+        return updated;
+    }
+
+    private void orderChunk(List<BulkOrderCommand> chunk, Object[] outcomes) {
+        //재고 UPDATE는 대기 중인 insert와 무관 -> 문장마다 자동 flush(전체 dirty checking) 하지 않도록
+        FlushModeType flushMode = em.getFlushMode();
+        em.setFlushMode(FlushModeType.COMMIT);
+        try {
+            Map<Long, Member> members = findMembers(chunk);
+            Map<Long, Item> items = findItems(chunk);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    Order order = createOrder(chunk.get(i), members, items);
+                    orderRepository.save(order);
+                    outcomes[i] = order.getId();
+                } catch (NotEnoughStockException | IllegalArgumentException e) {
+                    outcomes[i] = e.getMessage();
+                }
+            }
+
+            changeTracker.changed(TrackedResource.ORDERS);
+
+            //배치 insert 실행 후 영속성 컨텍스트 비움(OSIV로 같은 EntityManager를 계속 쓰더라도 청크 크기만큼만 유지)
+            em.flush();
+            em.clear();
+        } finally {
+            em.setFlushMode(flushMode);
+        }
+    }
+
+    private Order createOrder(BulkOrderCommand command, Map<Long, Member> members, Map<Long, Item> items) {
+        Member member = members.get(command.getMemberId());
+        if (member == null) {
+            throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + command.getMemberId());
+        }
+        if (command.getItems() == null || command.getItems().isEmpty()) {
+            throw new IllegalArgumentException("주문상품이 없습니다.");
+        }
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        try {
+            for (BulkOrderCommand.Line line : command.getItems()) {
+                Item item = items.get(line.getItemId());
+                if (item == null) {
+                    throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + line.getItemId());
+                }
+                if (line.getCount() <= 0) {
+                    throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다. itemId=" + line.getItemId());
+                }
+                orderItems.add(reserveOrderItem(item, line.getCount()));
+            }
+        } catch (RuntimeException e) {
+            //이 주문에서 먼저 차감한 재고 되돌림
+            orderItems.forEach(this::restoreStock);
+            throw e;
+        }
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        delivery.setStatus(DeliveryStatus.READY);
+
+        return Order.createOrder(member, delivery, orderItems.toArray(new OrderItem[0]));
+    }
+
+    //OrderService.order와 같은 재고 차감 경로(영속 상태 Item은 refresh하지 않음)
+    private OrderItem reserveOrderItem(Item item, int count) {
+        if (inventoryLedger.manages(item.getId())) {
+            inventoryLedger.reserve(item.getId(), count);
+            return OrderItem.createPendingOrderItem(item, item.getPrice(), count);
+        }
+        if (!itemRepository.decreaseStock(item.getId(), count)) {
+            throw new NotEnoughStockException("need more stock. itemId=" + item.getId());
+        }
+        return OrderItem.createReservedOrderItem(item, item.getPrice(), count);
+    }
+
+    private void restoreStock(OrderItem orderItem) {
+        Long itemId = orderItem.getItem().getId();
+        if (inventoryLedger.manages(itemId)) {
+            inventoryLedger.release(itemId, orderItem.getCount());
+        } else {
+            itemRepository.increaseStock(itemId, orderItem.getCount());
+        }
+    }
+
+    private Map<Long, Member> findMembers(List<BulkOrderCommand> chunk) {
+        Set<Long> memberIds = chunk.stream()
+                .map(BulkOrderCommand::getMemberId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return memberRepository.findAllById(memberIds).stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+    }
+
+    private Map<Long, Item> findItems(List<BulkOrderCommand> chunk) {
+        Set<Long> itemIds = new HashSet<>();
+        for (BulkOrderCommand command : chunk) {
+            if (command.getItems() != null) {
+                command.getItems().stream()
+                        .map(BulkOrderCommand.Line::getItemId)
+                        .filter(Objects::nonNull)
+                        .forEach(itemIds::add);
+            }
+        }
+        return itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+}
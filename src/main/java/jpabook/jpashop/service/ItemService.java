@@ -1,7 +1,11 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.change.ChangeTracker;
+import jpabook.jpashop.change.TrackedResource;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.inventory.InventoryLedger;
 import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.retry.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,21 +17,35 @@ import java.util.List;
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final InventoryLedger inventoryLedger;
+    private final ChangeTracker changeTracker;
 
     @Transactional
     public void saveItem(Item item) {
         itemRepository.save(item);
+        changeTracker.changed(TrackedResource.ITEMS);
     }
 
     /**
      * 영속성 컨텍스트가 자동 변경
      */
     @Transactional
+    @OptimisticRetry
     public void updateItem(Long id, String name, int price, int stockQuantity) {
         Item item = itemRepository.findOne(id);
+
+        //인메모리 재고 원장이 관리하는 상품 : 재고를 절대값으로 덮어쓰지 않고
+        //지금 원장에서 주문 가능한 수량과의 차이만큼 item 재고와 카운터를 함께 증감(미반영 예약은 그대로 유지)
+        if (inventoryLedger.manages(id)) {
+            int delta = stockQuantity - inventoryLedger.available(id);
+            itemRepository.addStock(item, delta); //원자적 증감 + refresh(버전 포함)
+            inventoryLedger.adjust(id, delta);
+        } else {
+            item.setStockQuantity(stockQuantity);
+        }
         item.setName(name);
         item.setPrice(price);
-        item.setStockQuantity(stockQuantity);
+        changeTracker.changed(TrackedResource.ITEMS);
     }
 
     public List<Item> findItems() {
@@ -0,0 +1,39 @@
+package jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 가져오기 결과(청크 1개 또는 전체 합계)
+ * rejects는 청크 결과에만 담고 합계에는 누적하지 않음 -> 파일 크기와 무관하게 메모리 일정
+ */
+@Data
+public class MemberImportResult {
+
+    private long read;
+    private long imported;
+    private long rejected;
+    private List<Reject> rejects = new ArrayList<>();
+
+    public void reject(long line, String name, String reason) {
+        rejects.add(new Reject(line, name, reason));
+        rejected++;
+    }
+
+    public void add(MemberImportResult chunk) {
+        read += chunk.read;
+        imported += chunk.imported;
+        rejected += chunk.rejected;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Reject {
+        private long line;
+        private String name;
+        private String reason;
+    }
+}
@@ -0,0 +1,27 @@
+package jpabook.jpashop.service;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 가져오기 입력 1행
+ * error가 있으면 형식 오류(파싱 실패)로 저장하지 않고 거절
+ */
+@Data
+@NoArgsConstructor
+public class MemberImportRow {
+
+    private long line;
+    private String name;
+    private String city;
+    private String street;
+    private String zipcode;
+    private String error;
+
+    public static MemberImportRow invalid(long line, String error) {
+        MemberImportRow row = new MemberImportRow();
+        row.setLine(line);
+        row.setError(error);
+        return row;
+    }
+}
@@ -0,0 +1,169 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jpabook.jpashop.change.ChangeTracker;
+import jpabook.jpashop.change.TrackedResource;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 대량 회원 가져오기
+ * 입력을 CHUNK_SIZE행씩 읽어 청크마다 트랜잭션 1번
+ * - 중복 확인 : 이름 필터에 없는 이름은 확인 생략, 나머지만 IN절 1번으로 조회
+ * - 저장 : persist + JDBC 배치 insert(hibernate.jdbc.batch_size), 청크마다 영속성 컨텍스트 비움
+ * 청크가 끝날 때마다 listener로 진행 상황과 그 청크의 거절 행을 넘김
+ * -> 입력 전체를 메모리에 올리지 않으므로 파일 크기와 무관하게 청크 크기만큼만 사용
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final EntityManager em;
+    private final MemberRepository memberRepository;
+    private final MemberNameFilter memberNameFilter;
+    private final ChangeTracker changeTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    public MemberImportService(EntityManager em, MemberRepository memberRepository, MemberNameFilter memberNameFilter,
+                               ChangeTracker changeTracker, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.memberRepository = memberRepository;
+        this.memberNameFilter = memberNameFilter;
+        this.changeTracker = changeTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public MemberImportResult importMembers(Iterator<MemberImportRow> rows, Consumer<MemberImportResult> listener) {
+        MemberImportResult total = new MemberImportResult();
+        List<MemberImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                total.add(importChunk(chunk, listener));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            total.add(importChunk(chunk, listener));
+        }
+        return total;
+    }
+
+    private MemberImportResult importChunk(List<MemberImportRow> chunk, Consumer<MemberImportResult> listener) {
+        MemberImportResult result = new MemberImportResult();
+        result.setRead(chunk.size());
+        Map<String, MemberImportRow> candidates = validate(chunk, result);
+        int validationRejects = result.getRejects().size();
+
+        List<Member> saved = null;
+        //다른 요청이 같은 이름을 먼저 커밋하면 유니크 제약 위반 -> 한 번 더 시도하면 중복 확인에서 걸러짐
+        //재시도는 필터를 믿지 않고 모든 이름을 조회(다른 서버에서 가입한 이름은 이 서버 필터에 없음)
+        for (int attempt = 1; saved == null; attempt++) {
+            boolean checkAll = attempt > 1;
+            try {
+                saved = transactionTemplate.execute(status -> saveChunk(candidates, result, checkAll));
+            } catch (RuntimeException e) {
+                //롤백된 시도에서 나온 거절(이미 존재) 행은 버리고 다시 판단
+                result.getRejects().subList(validationRejects, result.getRejects().size()).clear();
+                result.setRejected(validationRejects);
+                if (attempt < 2) {
+                    log.info("member import chunk conflicted, retrying. firstLine={}", chunk.get(0).getLine());
+                    continue;
+                }
+                log.warn("member import chunk failed. firstLine={}, size={}", chunk.get(0).getLine(), chunk.size(), e);
+                candidates.values().forEach(row -> result.reject(row.getLine(), row.getName(), "chunk rollback: " + e.getMessage()));
+                saved = List.of();
+            }
+        }
+
+        //커밋된 뒤에만 필터에 추가
+        saved.forEach(member -> memberNameFilter.add(member.getName()));
+        result.setImported(saved.size());
+        listener.accept(result);
+        return result;
+    }
+
+    //DB 없이 할 수 있는 검사 + 청크 안 중복 제거(먼저 나온 행 유지)
+    private Map<String, MemberImportRow> validate(List<MemberImportRow> chunk, MemberImportResult result) {
+        Map<String, MemberImportRow> candidates = new LinkedHashMap<>();
+        for (MemberImportRow row : chunk) {
+            String name = StringUtils.hasText(row.getName()) ? row.getName().strip() : null;
+            if (row.getError() != null) {
+                result.reject(row.getLine(), row.getName(), row.getError());
+            } else if (name == null) {
+                result.reject(row.getLine(), row.getName(), "이름이 없습니다.");
+            } else if (name.length() > MAX_NAME_LENGTH) {
+                result.reject(row.getLine(), null, "이름이 너무 깁니다.");
+            } else if (candidates.putIfAbsent(name, row) != null) {
+                result.reject(row.getLine(), name, "파일 안에서 중복된 이름입니다.");
+            }
+        }
+        return candidates;
+    }
+
+    private List<Member> saveChunk(Map<String, MemberImportRow> candidates, MemberImportResult result, boolean checkAll) {
+        //insert 사이에 조회가 있어도 대기 중인 insert를 flush하지 않도록
+        FlushModeType flushMode = em.getFlushMode();
+        em.setFlushMode(FlushModeType.COMMIT);
+        try {
+            Set<String> existing = findExistingNames(candidates.keySet(), checkAll);
+            List<Member> members = new ArrayList<>(candidates.size());
+            for (Map.Entry<String, MemberImportRow> entry : candidates.entrySet()) {
+                MemberImportRow row = entry.getValue();
+                if (existing.contains(entry.getKey())) {
+                    result.reject(row.getLine(), entry.getKey(), "이미 존재하는 회원입니다.");
+                    continue;
+                }
+                Member member = new Member();
+                member.setName(entry.getKey());
+                if (row.getCity() != null || row.getStreet() != null || row.getZipcode() != null) {
+                    member.setAddress(new Address(row.getCity(), row.getStreet(), row.getZipcode()));
+                }
+                em.persist(member);
+                members.add(member);
+            }
+
+            if (!members.isEmpty()) {
+                changeTracker.changed(TrackedResource.MEMBERS);
+            }
+
+            //배치 insert 실행 후 영속성 컨텍스트 비움(OSIV로 같은 EntityManager를 계속 쓰더라도 청크 크기만큼만 유지)
+            em.flush();
+            em.clear();
+            return members;
+        } finally {
+            em.setFlushMode(flushMode);
+        }
+    }
+
+    //필터가 "없음"이라고 한 이름은 DB에도 없음 -> 있을 수도 있는 이름만 조회
+    //checkAll이면 필터 없이 모든 이름 조회
+    private Set<String> findExistingNames(Set<String> names, boolean checkAll) {
+        List<String> suspects = names.stream()
+                .filter(name -> checkAll || memberNameFilter.mightContain(name))
+                .toList();
+        if (suspects.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(memberRepository.findNamesIn(suspects));
+    }
+}
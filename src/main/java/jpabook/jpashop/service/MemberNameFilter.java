@@ -0,0 +1,156 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * 회원 이름 블룸 필터(메모리)
+ * mightContain == false -> 확실히 없는 이름 : 조회 없이 가입 진행
+ * mightContain == true  -> 있을 수도 있음(falsePositiveRate 확률로 오답) : 이름 조회로 확인
+ * 필터에 빠진 이름이 있어도(InitDb, 다른 서버에서 가입 등) member.name 유니크 제약이 최종 방어선
+ * 시작할 때 DB의 모든 이름으로 채우고, 가입/이름 변경 시 추가, 용량을 넘으면 2배로 다시 만듦
+ */
+@Slf4j
+@Component
+public class MemberNameFilter {
+
+    private final MemberNameFilterProperties properties;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Bits bits;
+
+    public MemberNameFilter(MemberNameFilterProperties properties, MemberRepository memberRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    //InitDb(ApplicationRunner) 등 초기 데이터가 들어간 뒤에 적재, 그 전까지는 필터 없이 항상 조회
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (properties.isEnabled()) {
+            rebuild(Math.max(properties.getExpectedMembers(), memberRepository.count() * 2));
+        }
+    }
+
+    public boolean mightContain(String name) {
+        Bits current = bits;
+        return current == null || current.mightContain(name); //필터가 없으면 항상 조회
+    }
+
+    public void add(String name) {
+        Bits current = bits;
+        if (current != null && name != null) {
+            current.add(name);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void rebuildIfSaturated() {
+        Bits current = bits;
+        if (current != null && current.inserted.get() > current.capacity) {
+            rebuild(current.capacity * 2);
+        }
+    }
+
+    //현재 필터의 수용 이름 수(필터가 없으면 0)
+    long capacity() {
+        Bits current = bits;
+        return current == null ? 0 : current.capacity;
+    }
+
+    //다시 만드는 동안 추가된 이름이 빠질 수 있지만 유니크 제약이 막아 주므로 정확성에는 영향 없음
+    private void rebuild(long capacity) {
+        long started = System.currentTimeMillis();
+        Bits next = new Bits(capacity, properties.getFalsePositiveRate());
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> names = memberRepository.streamAllNames()) {
+                names.forEach(next::add);
+            }
+        });
+        bits = next;
+        log.info("member name filter built. names={}, capacity={}, bits={}, hashes={}, {}ms",
+                next.inserted.get(), capacity, next.size, next.hashes, System.currentTimeMillis() - started);
+    }
+
+    private static class Bits {
+        private final long capacity;
+        private final long size;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong inserted = new AtomicLong();
+
+        //m = -n ln p / (ln 2)^2, k = m / n ln 2
+        Bits(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64));
+            this.size = (long) words.length() * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+        }
+
+        void add(String name) {
+            long h1 = hash(name);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                } while ((old & mask) == 0 && !words.compareAndSet(word, old, old | mask));
+            }
+            inserted.incrementAndGet();
+        }
+
+        boolean mightContain(String name) {
+            if (name == null) {
+                return false;
+            }
+            long h1 = hash(name);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //FNV-1a 64bit(UTF-8)
+        private static long hash(String name) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        //murmur3 fmix64
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package jpabook.jpashop.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.member-filter")
+public class MemberNameFilterProperties {
+
+    //중복 회원 이름 블룸 필터 사용 여부(false면 가입마다 이름 조회)
+    private boolean enabled = true;
+
+    //최소 수용 이름 수(시작 시 회원 수의 2배와 비교해 큰 쪽), 넘으면 2배로 다시 만듦
+    private long expectedMembers = 2_000_000;
+
+    //"이미 있을 수도 있음" 오답 비율 -> 그만큼만 이름 조회
+    private double falsePositiveRate = 0.01;
+}
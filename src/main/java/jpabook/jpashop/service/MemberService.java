@@ -1,12 +1,17 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.change.ChangeTracker;
+import jpabook.jpashop.change.TrackedResource;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.repository.MemberRepository;
+import jpabook.jpashop.repository.MemberSummary;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @Transactional(readOnly = true)
@@ -14,6 +19,8 @@ import java.util.List;
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final ChangeTracker changeTracker;
+    private final MemberNameFilter memberNameFilter;
 
     /**
      * 회원가입
@@ -21,14 +28,21 @@ public class MemberService {
     @Transactional //변경
     public Long join(Member member) {
 
-        validateDuplicateMember(member); //중복 회원 검증
-        memberRepository.save(member);
+        validateDuplicateMember(member.getName()); //중복 회원 검증
+        try {
+            //동시에 같은 이름으로 가입하면 검증은 둘 다 통과 -> 유니크 제약 위반을 여기서 바로 확인
+            memberRepository.saveAndFlush(member);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
+        memberNameFilter.add(member.getName());
+        changeTracker.changed(TrackedResource.MEMBERS);
         return member.getId();
     }
 
-    private void validateDuplicateMember(Member member) {
-        List<Member> findMembers = memberRepository.findByName(member.getName());
-        if (!findMembers.isEmpty()) {
+    //필터에 없는 이름(대부분의 신규 가입)은 조회 없이 통과, 있을 수도 있는 이름만 인덱스로 확인
+    private void validateDuplicateMember(String name) {
+        if (memberNameFilter.mightContain(name) && memberRepository.existsByName(name)) {
             throw new IllegalStateException("이미 존재하는 회원입니다.");
         }
     }
@@ -40,6 +54,13 @@ public class MemberService {
         return memberRepository.findAll();
     }
 
+    /**
+     * 회원 목록 페이지(키셋) : afterId 다음부터 id 순으로 limit개
+     */
+    public List<MemberSummary> findMemberPage(Long afterId, int limit) {
+        return memberRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+
     public Member findOne(Long memberId) {
         return memberRepository.findById(memberId).get();
     }
@@ -47,6 +68,16 @@ public class MemberService {
     @Transactional
     public void update(Long id, String name) {
         Member member = memberRepository.findById(id).get();
+        if (!Objects.equals(name, member.getName())) {
+            validateDuplicateMember(name);
+        }
         member.setName(name);
+        try {
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("이미 존재하는 회원입니다.", e);
+        }
+        memberNameFilter.add(name);
+        changeTracker.changed(TrackedResource.MEMBERS);
     }
 }
\ No newline at end of file
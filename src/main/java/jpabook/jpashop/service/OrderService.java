@@ -1,11 +1,18 @@
 package jpabook.jpashop.service;
 
+import jpabook.jpashop.change.ChangeTracker;
+import jpabook.jpashop.change.TrackedResource;
 import jpabook.jpashop.domain.*;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.inventory.InventoryLedger;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.retry.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,9 +26,13 @@ public class OrderService {
     private final MemberRepository memberRepository;
     private final OrderRepository orderRepository;
     private final ItemRepository itemRepository;
+    private final InventoryLedger inventoryLedger;
+    private final StockService stockService;
+    private final ChangeTracker changeTracker;
 
     /** 주문 */
     @Transactional
+    @OptimisticRetry
     public Long order(Long memberId, Long itemId, int count) {
 
         //엔티티 조회
@@ -33,28 +44,56 @@ public class OrderService {
         delivery.setAddress(member.getAddress());
         delivery.setStatus(DeliveryStatus.READY);
 
-        //주문상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        //재고 차감 + 주문상품 생성
+        OrderItem orderItem = reserveOrderItem(item, count);
         //주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
 
         //주문 저장
         orderRepository.save(order);
+        changeTracker.changed(TrackedResource.ORDERS);
         return order.getId();
     }
 
     /** 주문 취소 */
     @Transactional
+    @OptimisticRetry
     public void cancelOrder(Long orderId) {
 
         //주문 엔티티 조회
         Order order = orderRepository.findOne(orderId);
-        //주문 취소
+        //주문 취소(상태 전이만)
         order.cancel();
+
+        //재고 복구 : 대량 취소와 같은 경로
+        stockService.returnStock(order);
+        changeTracker.changed(TrackedResource.ORDERS);
+    }
+
+    //인메모리 재고 원장이 관리하는 인기 상품 : DB 행 잠금 없이 메모리에서 예약, item 재고는 나중에 일괄 반영
+    //그 외 상품 : 조건부 UPDATE 한 번으로 확인 + 차감(부족하면 NotEnoughStockException)
+    //엔티티를 읽고 자바에서 빼서 다시 쓰는 방식은 동시 주문 시 갱신 손실 -> 초과 판매
+    private OrderItem reserveOrderItem(Item item, int count) {
+        if (inventoryLedger.manages(item.getId())) {
+            inventoryLedger.reserve(item.getId(), count);
+            return OrderItem.createPendingOrderItem(item, item.getPrice(), count);
+        }
+        itemRepository.removeStock(item, count);
+        return OrderItem.createReservedOrderItem(item, item.getPrice(), count);
     }
 
     /** 주문 검색 */
     public List<Order> findOrders(OrderSearch orderSearch) {
         return orderRepository.findAllByString(orderSearch);
     }
-}
\ No newline at end of file
+
+    /** 주문 검색(페이징, 전체 건수 포함) */
+    public Page<Order> searchOrders(OrderSearch orderSearch, Pageable pageable) {
+        return orderRepository.search(orderSearch, pageable);
+    }
+
+    /** 주문 검색(페이징, count 쿼리 없음) */
+    public Slice<Order> searchOrderSlice(OrderSearch orderSearch, Pageable pageable) {
+        return orderRepository.searchSlice(orderSearch, pageable);
+    }
+}
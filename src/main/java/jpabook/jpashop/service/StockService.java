@@ -0,0 +1,59 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.inventory.InventoryLedger;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 주문 취소 시 재고 반환의 유일한 경로(단건 취소 OrderService, 대량 취소 BulkOrderService)
+ * item 재고는 조건부 UPDATE와 같은 원자적 증가, 인메모리 원장이 관리하는 상품이면 커밋 후 카운터도 반환
+ * 상품 id 순으로 갱신 -> 동시 취소 간 행 잠금 순서 고정(교착 상태 방지)
+ * 호출하는 쪽 트랜잭션 안에서만 사용(주문 상태 변경과 함께 커밋/롤백)
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+@RequiredArgsConstructor
+public class StockService {
+
+    private final ItemRepository itemRepository;
+    private final InventoryLedger inventoryLedger;
+
+    //취소된 주문 엔티티의 주문상품 재고 반환(영속 상태 Item은 DB 값으로 refresh)
+    public void returnStock(Order order) {
+        Map<Long, Item> items = new TreeMap<>();
+        Map<Long, Integer> counts = new TreeMap<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            Item item = orderItem.getItem();
+            items.putIfAbsent(item.getId(), item);
+            counts.merge(item.getId(), orderItem.getCount(), Integer::sum);
+        }
+
+        items.forEach((itemId, item) -> {
+            itemRepository.addStock(item, counts.get(itemId));
+            releaseLedger(itemId, counts.get(itemId));
+        });
+    }
+
+    //상품 id별 수량 합계로 반환(대량 취소 : 엔티티를 로딩하지 않음)
+    public void returnStock(Map<Long, Integer> countByItemId) {
+        new TreeMap<>(countByItemId).forEach((itemId, count) -> {
+            itemRepository.increaseStock(itemId, count);
+            releaseLedger(itemId, count);
+        });
+    }
+
+    private void releaseLedger(Long itemId, int count) {
+        if (inventoryLedger.manages(itemId)) {
+            inventoryLedger.release(itemId, count);
+        }
+    }
+}
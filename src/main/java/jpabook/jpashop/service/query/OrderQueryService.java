@@ -1,28 +1,91 @@
 package jpabook.jpashop.service.query;
 
+import jakarta.persistence.EntityManager;
 import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.repository.OrderCursor;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import jpabook.jpashop.repository.order.query.OrderFlatDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly=true)
 public class OrderQueryService {
 
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int STREAM_PAGE_SIZE = 100; //default_batch_fetch_size와 같게 -> 페이지당 주문상품, 상품 IN 조회 1번씩
+
+    private final EntityManager em;
     private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
 
+    //엔티티 조회 후 DTO 변환은 모두 이 서비스의 읽기 전용 트랜잭션 안에서
+    //readOnly 트랜잭션이면 스프링이 세션을 기본 읽기 전용(setDefaultReadOnly)으로 바꿈
+    //-> 쿼리로 읽은 엔티티, 지연 로딩/배치 페치로 읽은 엔티티 모두 dirty checking 스냅샷 없음, flush 없음
+    //컨트롤러에서 트랜잭션 없이(OSIV) 읽으면 엔티티마다 스냅샷이 생겨 메모리를 두 배로 씀
     public List<OrderDto> ordersV3() {
         List<Order> orders = orderRepository.findAllWithItem();
+        return toDtos(orders);
+    }
+
+    //v3 + 페이징 : 2단계 페이징(주문 id 페이지 -> 그 주문들만 컬렉션까지 fetch join)
+    public List<OrderDto> ordersV3(int offset, int limit) {
+        List<Order> orders = orderRepository.findAllWithItem(offset, limit);
+        return toDtos(orders);
+    }
 
-        List<OrderDto> result = orders.stream()
+    public List<OrderDto> ordersV2() {
+        List<Order> orders = orderRepository.findAllByString(new OrderSearch());
+        return toDtos(orders); //member, delivery, orderItems, item 지연 로딩도 트랜잭션 안에서
+    }
+
+    public List<OrderDto> ordersV3_page(int offset, int limit) {
+        List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit); //XToOne -> fetch join
+        return toDtos(orders); //컬렉션은 default_batch_fetch_size로 IN 조회
+    }
+
+    public List<OrderDto> ordersV3_keyset(OrderCursor cursor, int limit) {
+        List<Order> orders = orderRepository.findAllWithMemberDelivery(cursor, limit); //XToOne -> fetch join
+        return toDtos(orders);
+    }
+
+    private static List<OrderDto> toDtos(List<Order> orders) {
+        return orders.stream()
                 .map(o -> new OrderDto(o))
                 .collect(Collectors.toList());
+    }
+
+    //주문 엔티티 스트리밍
+    //키셋 페이지 단위로 읽어 sink로 넘긴 뒤 영속성 컨텍스트를 비움 -> 한 번에 한 페이지만 메모리에 있음
+    public void streamOrders(Consumer<Order> sink) {
+        OrderCursor cursor = null;
+        List<Order> orders;
+        do {
+            orders = orderRepository.findAllWithMemberDelivery(cursor, STREAM_PAGE_SIZE);
+            orders.forEach(sink);
+            if (!orders.isEmpty()) {
+                cursor = OrderCursor.of(orders.get(orders.size() - 1));
+            }
+            em.clear();
+        } while (orders.size() == STREAM_PAGE_SIZE);
+    }
 
-        return result;
+    //전체 주문 내보내기
+    //주문 1건이 완성될 때마다 sink로 넘기고 버림 -> 주문 수와 무관하게 메모리 일정
+    public void exportOrders(Consumer<OrderQueryDto> sink) {
+        try (Stream<OrderFlatDto> rows = orderQueryRepository.streamAllByDto_flat(EXPORT_FETCH_SIZE)) {
+            OrderFlatAssembler.forEachOrder(rows.iterator(), sink);
+        }
     }
 }
@@ -4,10 +4,15 @@ import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import jpabook.jpashop.intake.OrderIntake;
+import jpabook.jpashop.service.BulkOrderCommand;
 import jpabook.jpashop.service.ItemService;
 import jpabook.jpashop.service.MemberService;
 import jpabook.jpashop.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +26,7 @@ public class OrderController {
     private final OrderService orderService;
     private final MemberService memberService;
     private final ItemService itemService;
+    private final OrderIntake orderIntake;
 
     @GetMapping(value = "/order")
     public String createForm(Model model) {
@@ -37,15 +43,29 @@ public class OrderController {
     @PostMapping(value = "/order")
     public String order(@RequestParam("memberId") Long memberId, @RequestParam("itemId") Long itemId, @RequestParam("count") int count) {
 
+        //비동기 접수 모드면 대기열에 넣고 바로 응답(커밋은 writer 스레드가 모아서)
+        if (orderIntake.isEnabled()) {
+            orderIntake.submit(new BulkOrderCommand(memberId, List.of(new BulkOrderCommand.Line(itemId, count))));
+            return "redirect:/orders";
+        }
+
         orderService.order(memberId, itemId, count);
         return "redirect:/orders";
     }
 
     @GetMapping(value = "/orders")
-    public String orderList(@ModelAttribute("orderSearch") OrderSearch orderSearch, Model model) {
-
-        List<Order> orders = orderService.findOrders(orderSearch);
-        model.addAttribute("orders", orders);
+    public String orderList(@ModelAttribute("orderSearch") OrderSearch orderSearch,
+                            @RequestParam(value = "page", defaultValue = "0") int page, Model model) {
+
+        //음수 page는 PageRequest.of에서 IllegalArgumentException(500) -> 400
+        if (page < 0) {
+            throw new InvalidPageRequestException("page는 0 이상이어야 합니다.");
+        }
+
+        //count 쿼리 없이 다음 페이지 여부만 확인
+        Slice<Order> orders = orderService.searchOrderSlice(orderSearch, PageRequest.of(page, 100));
+        model.addAttribute("orders", orders.getContent());
+        model.addAttribute("slice", orders);
 
         return "order/orderList";
     }
@@ -0,0 +1,80 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jpabook.jpashop.service.MemberImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberImportReaderTest {
+
+    @Test
+    public void CSV_헤더_따옴표_형식오류() throws Exception {
+        //Given
+        String csv = "name,city,street,zipcode\n" +
+                "kim,서울,\"강가, 1\",11111\n" +
+                "\n" +
+                "\"lee \"\"jr\"\"\"\n" +
+                "\"park,부산\n";
+
+        //When
+        List<MemberImportRow> rows = readAll(MemberImportReader.csv(new BufferedReader(new StringReader(csv))));
+
+        //Then
+        assertEquals(3, rows.size());
+        assertEquals("kim", rows.get(0).getName());
+        assertEquals("강가, 1", rows.get(0).getStreet());
+        assertEquals(2, rows.get(0).getLine());
+        assertEquals("lee \"jr\"", rows.get(1).getName());
+        assertNull(rows.get(1).getCity());
+        assertEquals(4, rows.get(1).getLine());
+        assertNotNull(rows.get(2).getError()); //따옴표가 닫히지 않음
+        assertEquals(5, rows.get(2).getLine());
+    }
+
+    @Test
+    public void 헤더_없는_CSV의_첫_행은_name으로_시작해도_회원() throws Exception {
+        //Given
+        String csv = "Nami,서울,강가,11111\n" +
+                "Name Kim\n" +
+                "\"NAME\",city\n";
+
+        //When
+        List<MemberImportRow> rows = readAll(MemberImportReader.csv(new BufferedReader(new StringReader(csv))));
+
+        //Then : 헤더는 첫 줄만
+        assertEquals(3, rows.size());
+        assertEquals("Nami", rows.get(0).getName());
+        assertEquals(1, rows.get(0).getLine());
+        assertEquals("Name Kim", rows.get(1).getName());
+        assertEquals("NAME", rows.get(2).getName());
+    }
+
+    @Test
+    public void NDJSON_형식오류는_거절행() throws Exception {
+        //Given
+        String ndjson = "{\"name\":\"kim\",\"city\":\"서울\"}\n" +
+                "{\"name\":\n";
+
+        //When
+        List<MemberImportRow> rows = readAll(MemberImportReader.ndjson(new BufferedReader(new StringReader(ndjson)), new ObjectMapper()));
+
+        //Then
+        assertEquals(2, rows.size());
+        assertEquals("kim", rows.get(0).getName());
+        assertEquals("서울", rows.get(0).getCity());
+        assertNull(rows.get(0).getError());
+        assertNotNull(rows.get(1).getError());
+    }
+
+    private static List<MemberImportRow> readAll(MemberImportReader reader) {
+        List<MemberImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+package jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import jpabook.jpashop.repository.order.query.OrderQueryDto;
+import jpabook.jpashop.service.query.OrderDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OrderJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void ObjectMapper와_같은_JSON() throws Exception {
+        //Given
+        OrderQueryDto order = new OrderQueryDto(1L, "userA", LocalDateTime.of(2024, 1, 2, 3, 4, 0),
+                OrderStatus.ORDER, new Address("서울", "1", "1111"),
+                List.of(new OrderItemQueryDto(1L, "JPA1 BOOK", 10000, 1),
+                        new OrderItemQueryDto(1L, "JPA2 BOOK", 20000, 2)));
+
+        //When
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            OrderJsonWriter.write(gen, order);
+        }
+
+        //Then
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(order)), objectMapper.readTree(out.toString()));
+    }
+
+    @Test
+    public void null_필드() throws Exception {
+        //Given
+        OrderQueryDto order = new OrderQueryDto(2L, null, null, null, null, List.of());
+
+        //When
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            OrderJsonWriter.write(gen, order);
+        }
+
+        //Then
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(order)), objectMapper.readTree(out.toString()));
+    }
+
+    @Test
+    public void null_주문상품() throws Exception {
+        //Given
+        OrderQueryDto order = new OrderQueryDto(3L, "userA", LocalDateTime.of(2024, 1, 2, 3, 4, 0),
+                OrderStatus.ORDER, new Address("서울", "1", "1111"), null);
+
+        //When
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            OrderJsonWriter.write(gen, order);
+        }
+
+        //Then
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(order)), objectMapper.readTree(out.toString()));
+    }
+
+    @Test
+    public void 엔티티_쓰기는_OrderDto와_같은_JSON() throws Exception {
+        //Given
+        Member member = new Member();
+        member.setName("userA");
+        member.setAddress(new Address("서울", "1", "1111"));
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery,
+                OrderItem.createOrderItem(createBook("JPA1 BOOK", 10000), 10000, 1),
+                OrderItem.createOrderItem(createBook("JPA2 BOOK", 20000), 20000, 2));
+        order.setId(1L);
+        order.setOrderDate(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_000_000));
+
+        //When
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            OrderJsonWriter.write(gen, order);
+        }
+
+        //Then
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(new OrderDto(order))),
+                objectMapper.readTree(out.toString()));
+    }
+
+    private static Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(10);
+        return book;
+    }
+}
@@ -0,0 +1,151 @@
+package jpabook.jpashop.api;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.QueryBudgetExceededException;
+import jpabook.jpashop.monitoring.QueryBudget;
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @QueryBudget 엔드포인트를 필터까지 포함해 호출(테스트 설정 fail-on-violation=true)
+ * 예산을 넘으면 QueryBudgetFilter가 본문을 내보내기 전에 예외 -> perform에서 그대로 던져짐
+ * 데이터는 flush + clear 후 호출 -> insert가 요청 SQL에 섞이지 않고, 지연 로딩도 실제로 조회
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class QueryBudgetWebTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        Book book1 = createBook("JPA1", 10000);
+        Book book2 = createBook("JPA2", 20000);
+        for (int i = 0; i < 3; i++) {
+            Member member = createMember("회원" + i);
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            em.persist(Order.createOrder(member, delivery,
+                    OrderItem.createOrderItem(book1, 10000, 1),
+                    OrderItem.createOrderItem(book2, 20000, 2)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void 예산_안의_주문_조회() throws Exception {
+        mockMvc.perform(get("/api/v3/orders").param("limit", "2")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v3.1/orders").param("limit", "100")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", "100")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v6/orders")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v6.1/orders").param("limit", "2")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v5.1/orders").param("limit", "1000")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v6/orders/export")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v5/simple-orders")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void 배치_크기를_넘는_페이지는_400() throws Exception {
+        mockMvc.perform(get("/api/v3.1/orders").param("limit", "101")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3.2/orders").param("limit", "101")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 범위를_벗어난_페이지는_400() throws Exception {
+        mockMvc.perform(get("/api/v5.1/orders").param("offset", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5.1/orders").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5.1/orders").param("limit", "1001")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5/simple-orders").param("page", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5/simple-orders").param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v5/simple-orders").param("size", "1001")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/orders").param("page", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3/members").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v3/members").param("limit", "1001")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 대량취소_조건이_없으면_400() throws Exception {
+        mockMvc.perform(post("/api/v1/orders/bulk-cancel").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/orders/bulk-cancel").contentType(MediaType.APPLICATION_JSON).content("{\"search\":{}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 예산_초과는_응답_전에_실패() {
+        assertThrows(QueryBudgetExceededException.class,
+                () -> mockMvc.perform(get("/test/over-budget")));
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+
+    @TestConfiguration
+    static class OverBudgetConfig {
+
+        @Bean
+        OverBudgetController overBudgetController(MemberRepository memberRepository) {
+            return new OverBudgetController(memberRepository);
+        }
+    }
+
+    //쿼리 2번, 예산 1번
+    @RestController
+    static class OverBudgetController {
+
+        private final MemberRepository memberRepository;
+
+        OverBudgetController(MemberRepository memberRepository) {
+            this.memberRepository = memberRepository;
+        }
+
+        @GetMapping("/test/over-budget")
+        @QueryBudget(1)
+        public int overBudget() {
+            return memberRepository.findByName("회원0").size() + memberRepository.findByName("회원1").size();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package jpabook.jpashop.change;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ChangeTrackerTest {
+
+    @Test
+    public void 변경된_리소스만_ETag가_바뀜() {
+        //Given
+        ChangeTracker changeTracker = new ChangeTracker();
+        String members = changeTracker.etag(TrackedResource.MEMBERS);
+        String orders = changeTracker.etag(TrackedResource.ORDERS, TrackedResource.MEMBERS);
+
+        //When
+        changeTracker.changed(TrackedResource.ORDERS); //트랜잭션 밖 -> 바로 반영
+
+        //Then
+        assertEquals(members, changeTracker.etag(TrackedResource.MEMBERS));
+        assertNotEquals(orders, changeTracker.etag(TrackedResource.ORDERS, TrackedResource.MEMBERS));
+    }
+
+    @Test
+    public void 서버마다_다른_ETag() {
+        assertNotEquals(new ChangeTracker().etag(TrackedResource.MEMBERS),
+                new ChangeTracker().etag(TrackedResource.MEMBERS));
+    }
+}
@@ -0,0 +1,102 @@
+package jpabook.jpashop.change;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConditionalGetInterceptorTest {
+
+    private final ChangeTracker changeTracker = new ChangeTracker();
+    private final ConditionalGetInterceptor interceptor = new ConditionalGetInterceptor(changeTracker);
+
+    @Test
+    public void 바뀐_게_없으면_304() throws Exception {
+        //Given
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(get(), first, handler("members")));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        //When
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(request, response, handler("members"));
+
+        //Then
+        assertFalse(proceed, "핸들러를 실행하지 않음");
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    public void 변경_후에는_핸들러_실행() throws Exception {
+        //Given
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(get(), first, handler("members"));
+
+        //When
+        changeTracker.changed(TrackedResource.MEMBERS); //트랜잭션 밖 -> 바로 반영
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(request, response, handler("members"));
+
+        //Then
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void If_Modified_Since만으로는_304_없음() throws Exception {
+        //Given
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 60_000);
+
+        //When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(request, response, handler("members"));
+
+        //Then
+        assertTrue(proceed, "초 단위 Last-Modified로는 같은 초 안의 변경을 구분할 수 없음");
+        assertNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void ConditionalGet이_없는_핸들러는_그대로() throws Exception {
+        //When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(get(), response, handler("plain"));
+
+        //Then
+        assertTrue(proceed);
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/v3/members");
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    static class Handlers {
+
+        @ConditionalGet(TrackedResource.MEMBERS)
+        public String members() {
+            return "members";
+        }
+
+        public String plain() {
+            return "plain";
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package jpabook.jpashop.intake;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jpabook.jpashop.exception.InvalidOrderRequestException;
+import jpabook.jpashop.exception.OrderIntakeUnavailableException;
+import jpabook.jpashop.exception.OrderQueueFullException;
+import jpabook.jpashop.service.BulkOrderCommand;
+import jpabook.jpashop.service.BulkOrderResult;
+import jpabook.jpashop.service.BulkOrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 대기열/배치/종료 동작만 확인(BulkOrderService는 목, DB 없음)
+ */
+public class OrderIntakeTest {
+
+    private static final long BAD_MEMBER = -1L;
+
+    private final BulkOrderService bulkOrderService = mock(BulkOrderService.class);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicLong orderSeq = new AtomicLong();
+    private OrderIntake intake;
+
+    @BeforeEach
+    public void setUp() {
+        answer(commands -> { });
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (intake != null) {
+            intake.stop();
+        }
+    }
+
+    @Test
+    public void 주문_접수() throws Exception {
+        //Given
+        intake = start(1, 10, 200, Duration.ofMillis(5));
+
+        //When
+        OrderTicket ticket = intake.submit(command(1L));
+
+        //Then
+        await(ticket);
+        assertEquals(OrderTicket.Status.COMPLETED, ticket.getStatus());
+        assertEquals(ticket, intake.findTicket(ticket.getTicketId()));
+    }
+
+    @Test
+    public void 대기열_가득참() {
+        //Given : writer 없음 -> 대기열이 비지 않음
+        intake = start(0, 1, 200, Duration.ofMillis(5));
+        intake.submit(command(1L));
+
+        //When, Then
+        assertThrows(OrderQueueFullException.class, () -> intake.submit(command(1L)));
+    }
+
+    @Test
+    public void 잘못된_주문은_접수하지_않음() {
+        //Given : writer 없음 -> 접수된 주문만 대기열에 쌓임
+        intake = start(0, 10, 200, Duration.ofMillis(5));
+
+        //When, Then : 400으로 응답하는 예외, 대기열에 들어가지 않음
+        assertThrows(InvalidOrderRequestException.class, () -> intake.submit(command(null)));
+        assertThrows(InvalidOrderRequestException.class,
+                () -> intake.submit(new BulkOrderCommand(1L, List.of())));
+        assertThrows(InvalidOrderRequestException.class,
+                () -> intake.submit(new BulkOrderCommand(1L, List.of(new BulkOrderCommand.Line(1L, 0)))));
+        for (int i = 0; i < 10; i++) {
+            intake.submit(command(1L)); //거절된 주문은 대기열 자리를 차지하지 않음
+        }
+        assertThrows(OrderQueueFullException.class, () -> intake.submit(command(1L)));
+    }
+
+    @Test
+    public void 배치로_모아서_커밋() throws Exception {
+        //Given : 첫 배치 커밋을 잡아두는 동안 쌓인 주문은 다음 배치 하나로
+        CountDownLatch firstBatch = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        answer(commands -> {
+            if (batchSizes.size() == 1) {
+                firstBatch.countDown();
+                release.await();
+            }
+        });
+        intake = start(1, 10, 50, Duration.ofMillis(5));
+        OrderTicket first = intake.submit(command(1L));
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+
+        //When
+        List<OrderTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tickets.add(intake.submit(command(1L)));
+        }
+        release.countDown();
+
+        //Then
+        await(first);
+        for (OrderTicket ticket : tickets) {
+            await(ticket);
+        }
+        assertEquals(List.of(1, 10), batchSizes, "대기 중에 쌓인 주문은 batchSize 한 번에");
+    }
+
+    @Test
+    public void 배치_실패는_주문별로_격리() throws Exception {
+        //Given : 배치 커밋은 예외, 1건씩 다시 커밋하면 나쁜 주문만 실패
+        answer(commands -> {
+            if (commands.size() > 1) {
+                throw new IllegalStateException("batch commit failed");
+            }
+        });
+        intake = start(1, 10, 3, Duration.ofSeconds(5)); //3건이 모일 때까지 기다림
+        OrderTicket good = intake.submit(command(1L));
+        OrderTicket bad = intake.submit(command(BAD_MEMBER));
+        OrderTicket good2 = intake.submit(command(2L));
+
+        //When
+        await(good);
+        await(bad);
+        await(good2);
+
+        //Then
+        assertEquals(3, batchSizes.get(0), "처음에는 배치 한 번으로 시도");
+        assertEquals(OrderTicket.Status.COMPLETED, good.getStatus());
+        assertEquals(OrderTicket.Status.FAILED, bad.getStatus());
+        assertEquals(OrderTicket.Status.COMPLETED, good2.getStatus());
+    }
+
+    @Test
+    public void 종료하면_남은_주문_처리_후_접수_거절() throws Exception {
+        //Given
+        intake = start(2, 100, 200, Duration.ofMillis(5));
+        List<OrderTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tickets.add(intake.submit(command(1L)));
+        }
+
+        //When
+        intake.stop();
+
+        //Then
+        tickets.forEach(ticket -> assertEquals(OrderTicket.Status.COMPLETED, ticket.getStatus(), "접수된 주문은 모두 처리"));
+        assertThrows(OrderIntakeUnavailableException.class, () -> intake.submit(command(1L)));
+    }
+
+    @Test
+    public void 비활성화면_503() {
+        //Given
+        IntakeProperties properties = new IntakeProperties();
+        intake = new OrderIntake(properties, bulkOrderService, new SimpleMeterRegistry());
+        intake.start();
+
+        //When, Then
+        assertThrows(OrderIntakeUnavailableException.class, () -> intake.submit(command(1L)));
+    }
+
+    //workers가 0이면 대기열을 비우는 writer 없음
+    private OrderIntake start(int workers, int queueCapacity, int batchSize, Duration linger) {
+        IntakeProperties properties = new IntakeProperties();
+        properties.setEnabled(true);
+        properties.setWorkers(workers);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setBatchSize(batchSize);
+        properties.setLinger(linger);
+        OrderIntake orderIntake = new OrderIntake(properties, bulkOrderService, new SimpleMeterRegistry());
+        orderIntake.start();
+        return orderIntake;
+    }
+
+    //명령 수만큼 주문 id를 채워 돌려주는 목, BAD_MEMBER 주문은 실패
+    private void answer(Hook hook) {
+        doAnswer(invocation -> {
+            List<BulkOrderCommand> commands = invocation.getArgument(0);
+            batchSizes.add(commands.size());
+            hook.accept(commands);
+            BulkOrderResult result = new BulkOrderResult(commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                if (commands.get(i).getMemberId() == BAD_MEMBER) {
+                    result.fail(i, "존재하지 않는 회원입니다.");
+                } else {
+                    result.success(i, orderSeq.incrementAndGet());
+                }
+            }
+            return result;
+        }).when(bulkOrderService).order(anyList());
+    }
+
+    private static BulkOrderCommand command(Long memberId) {
+        return new BulkOrderCommand(memberId, List.of(new BulkOrderCommand.Line(1L, 1)));
+    }
+
+    private static void await(OrderTicket ticket) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!ticket.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(ticket.isFinished(), "5초 안에 처리되어야 한다.");
+    }
+
+    private interface Hook {
+        void accept(List<BulkOrderCommand> commands) throws Exception;
+    }
+}
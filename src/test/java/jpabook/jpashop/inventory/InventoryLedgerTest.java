@@ -0,0 +1,135 @@
+package jpabook.jpashop.inventory;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.NotEnoughStockException;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 인메모리 원장이 관리하는 상품을 OrderService.order로 동시에 주문
+ * 트랜잭션마다 커밋해야 원장 예약/반영이 실제 경로대로 동작하므로 @Transactional 없이 직접 커밋
+ */
+@SpringBootTest
+public class InventoryLedgerTest {
+
+    private static final int STOCK = 200;
+    private static final int THREADS = 8;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    InventoryLedger inventoryLedger;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void 인기상품_동시주문_초과판매_없음() throws Exception {
+        //Given
+        Long memberId = createMember();
+        Long itemId = createBook(STOCK);
+        inventoryLedger.load(itemId);
+
+        //When : 재고가 소진될 때까지 동시에 1개씩 주문
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int ordered = 0;
+                while (true) {
+                    try {
+                        orderService.order(memberId, itemId, 1);
+                        ordered++;
+                    } catch (NotEnoughStockException e) {
+                        return ordered;
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        executor.shutdown();
+        inventoryLedger.flush();
+
+        //Then
+        assertEquals(STOCK, total, "주문 합계는 초기 재고와 같아야 한다.");
+        assertEquals(0, inventoryLedger.available(itemId));
+        assertEquals(0, stockOf(itemId), "일괄 반영 후 item 재고도 0이어야 한다.");
+        assertThrows(NotEnoughStockException.class, () -> orderService.order(memberId, itemId, 1));
+    }
+
+    @Test
+    public void 상품수정_미반영_예약_유지() {
+        //Given : 반영되지 않은 예약 3개
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+        inventoryLedger.load(itemId);
+        orderService.order(memberId, itemId, 3);
+
+        //When : 주문 가능 재고를 20으로 수정
+        itemService.updateItem(itemId, "수정", 10000, 20);
+        inventoryLedger.flush();
+
+        //Then : 미반영 예약이 반영된 뒤에도 원장과 item 재고가 같아야 함
+        assertEquals(20, inventoryLedger.available(itemId));
+        assertEquals(20, stockOf(itemId));
+    }
+
+    private int stockOf(Long itemId) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> itemRepository.findOne(itemId).getStockQuantity());
+    }
+
+    private Long createMember() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Member member = new Member();
+            member.setName("회원-" + UUID.randomUUID());
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private Long createBook(int stockQuantity) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Book book = new Book();
+            book.setName("인기상품");
+            book.setPrice(10000);
+            book.setStockQuantity(stockQuantity);
+            em.persist(book);
+            return book.getId();
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package jpabook.jpashop.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 상품 1개에 여러 스레드가 동시에 예약할 때 정확성 검증(처리량은 StripedStockBenchmark)
+ * 재고가 모두 소진될 때까지 예약하고, 예약 합계가 초기 재고와 정확히 같아야 함(초과 판매도, 남는 재고도 없음)
+ */
+public class StripedStockStressTest {
+
+    private static final int STOCK = 30_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    public void 인기상품_동시주문(int quantity) throws Exception {
+        //Given
+        StripedStock stock = new StripedStock(STOCK, 8);
+
+        //When
+        int total = reserveUntilSoldOut(stock, 16, quantity);
+
+        //Then : 재고가 남아 있는데 예약이 실패하면 합계가 모자람
+        assertEquals(STOCK, total, "예약 합계는 초기 재고와 같아야 한다.");
+        assertEquals(0, stock.available(), "재고는 음수가 되지 않고 정확히 0이어야 한다.");
+    }
+
+    @Test
+    public void 다른_버킷에서_재고_재분배() {
+        //Given : 버킷 8개에 재고 8개 -> 버킷당 1개
+        StripedStock stock = new StripedStock(8, 8);
+
+        //When, Then : 한 스레드가 자기 버킷보다 많이 예약해도 다른 버킷에서 끌어옴
+        assertTrue(stock.tryReserve(5));
+        assertEquals(3, stock.available());
+        assertFalse(stock.tryReserve(4), "전체 재고보다 많으면 실패");
+        assertEquals(3, stock.available(), "실패하면 끌어온 재고를 되돌려야 한다.");
+
+        stock.release(2);
+        assertTrue(stock.tryReserve(5));
+        assertEquals(0, stock.available());
+    }
+
+    @Test
+    public void 재고_감소_빚() {
+        //Given
+        StripedStock stock = new StripedStock(4, 8);
+
+        //When : 남은 재고보다 많이 줄임
+        stock.adjust(-6);
+
+        //Then : 빚을 갚기 전까지 예약 불가
+        assertEquals(-2, stock.available());
+        assertFalse(stock.tryReserve(1));
+        stock.release(3);
+        assertEquals(1, stock.available());
+        assertTrue(stock.tryReserve(1));
+        assertFalse(stock.tryReserve(1));
+    }
+
+    //스레드마다 실패할 때까지 quantity씩 예약, 예약한 수량 합계 반환
+    private static int reserveUntilSoldOut(StripedStock stock, int threads, int quantity) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int reserved = 0;
+                    while (stock.tryReserve(quantity)) {
+                        reserved += quantity;
+                    }
+                    return reserved;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package jpabook.jpashop.monitoring;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryBudgetFilterTest {
+
+    private final List<QueryContext> completed = new ArrayList<>();
+    private final QueryBudgetProperties properties = new QueryBudgetProperties();
+    private final QueryBudgetFilter filter;
+
+    public QueryBudgetFilterTest() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("listener", (RequestQueryListener) completed::add);
+        filter = new QueryBudgetFilter(properties, beanFactory.getBeanProvider(RequestQueryListener.class));
+    }
+
+    @Test
+    public void 핸들러_예외에도_집계는_기록() {
+        //Given
+        properties.setFailOnViolation(true);
+
+        //When : 쿼리 2번 실행 후 예외
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/orders"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            QueryContext.current().setBudget(1);
+                            QueryContext.current().record("select 1");
+                            QueryContext.current().record("select 2");
+                            throw new IllegalStateException("handler failed");
+                        }));
+
+        //Then : 원래 예외 그대로(예산 검사가 가리지 않음), 리스너는 호출, ThreadLocal은 비움
+        assertEquals("handler failed", e.getMessage());
+        assertEquals(1, completed.size());
+        assertEquals(2, completed.get(0).getTotal());
+        assertNull(QueryContext.current());
+    }
+
+    @Test
+    public void 정상_요청도_기록() throws ServletException, IOException {
+        //When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/orders"), new MockHttpServletResponse(),
+                (request, response) -> QueryContext.current().record("select 1"));
+
+        //Then
+        assertEquals(1, completed.size());
+        assertEquals(1, completed.get(0).getTotal());
+        assertNull(QueryContext.current());
+    }
+}
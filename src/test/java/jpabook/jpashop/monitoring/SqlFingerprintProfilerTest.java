@@ -0,0 +1,130 @@
+package jpabook.jpashop.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SqlFingerprintProfilerTest {
+
+    private static final Comparator<SqlFingerprintStats.Snapshot> BY_COUNT =
+            Comparator.comparingLong(SqlFingerprintStats.Snapshot::count);
+
+    @Test
+    public void 같은_모양은_하나로_집계() {
+        //Given
+        SqlFingerprintProfiler profiler = new SqlFingerprintProfiler(new SqlProfileProperties());
+
+        //When
+        profiler.record("select * from member where member_id=1", 2_000_000, false);
+        profiler.record("select * from member where member_id=2", 4_000_000, true);
+        profiler.rowRead("select * from member where member_id=2");
+        profiler.record("select * from item where item_id=1", 1_000_000, false);
+
+        //Then
+        List<SqlFingerprintStats.Snapshot> top = profiler.top(10, BY_COUNT);
+        assertEquals(2, top.size());
+        SqlFingerprintStats.Snapshot member = top.get(0);
+        assertEquals("select * from member where member_id=?", member.fingerprint());
+        assertEquals(2, member.count());
+        assertEquals(6.0, member.totalMs(), 0.001);
+        assertEquals(3.0, member.avgMs(), 0.001);
+        assertEquals(4.0, member.maxMs(), 0.001);
+        assertEquals(1, member.rows());
+        assertEquals(1, member.errors());
+    }
+
+    @Test
+    public void 모양_수_상한을_넘으면_other() {
+        //Given
+        SqlProfileProperties properties = new SqlProfileProperties();
+        properties.setMaxFingerprints(2);
+        SqlFingerprintProfiler profiler = new SqlFingerprintProfiler(properties);
+
+        //When
+        profiler.record("select * from member", 1_000, false);
+        profiler.record("select * from item", 1_000, false);
+        profiler.record("select * from orders", 1_000, false);
+        profiler.record("select * from delivery", 1_000, false);
+
+        //Then
+        List<SqlFingerprintStats.Snapshot> top = profiler.top(10, BY_COUNT);
+        assertEquals(3, top.size());
+        assertEquals(SqlFingerprintProfiler.OTHER, top.get(0).fingerprint());
+        assertEquals(2, top.get(0).count());
+    }
+
+    @Test
+    public void 초기화_후_새로_집계() {
+        //Given
+        SqlFingerprintProfiler profiler = new SqlFingerprintProfiler(new SqlProfileProperties());
+        profiler.record("select * from member where member_id=1", 1_000, false);
+
+        //When
+        profiler.reset();
+        profiler.record("select * from member where member_id=1", 1_000, false);
+
+        //Then
+        List<SqlFingerprintStats.Snapshot> top = profiler.top(10, BY_COUNT);
+        assertEquals(1, top.size());
+        assertEquals(1, top.get(0).count(), "초기화 전 원문 캐시가 옛 통계를 가리키면 안 된다.");
+    }
+
+    @Test
+    public void 기록_중_초기화() throws Exception {
+        //Given
+        SqlFingerprintProfiler profiler = new SqlFingerprintProfiler(new SqlProfileProperties());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    profiler.record("select * from member where member_id=" + (i % 100), 1_000, false);
+                }
+            }));
+        }
+
+        //When
+        for (int i = 0; i < 100; i++) {
+            profiler.reset();
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        profiler.reset();
+        profiler.record("select * from member where member_id=1", 1_000, false);
+
+        //Then
+        List<SqlFingerprintStats.Snapshot> top = profiler.top(10, BY_COUNT);
+        assertEquals(1, top.size());
+        assertEquals(1, top.get(0).count(), "마지막 초기화 뒤 기록만 남아야 한다.");
+    }
+
+    @Test
+    public void p99_구간_상한() {
+        //Given
+        SqlFingerprintStats stats = new SqlFingerprintStats("select 1");
+
+        //When
+        for (int i = 0; i < 99; i++) {
+            stats.record(1_500_000, false); //1.5ms -> [1.024ms, 2.048ms) 구간
+        }
+        stats.record(100_000_000, false); //100ms 1건
+
+        //Then
+        SqlFingerprintStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(2.048, snapshot.p99Ms(), 0.001, "99번째 값이 속한 구간의 상한");
+        assertEquals(100.0, snapshot.maxMs(), 0.001);
+    }
+}
@@ -0,0 +1,33 @@
+package jpabook.jpashop.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlNormalizerTest {
+
+    @Test
+    public void 리터럴과_공백_정규화() {
+        //Given
+        String sql1 = "select m1_0.member_id, m1_0.name\n  from member m1_0 where m1_0.member_id=1 and m1_0.name='userA'";
+        String sql2 = "SELECT m1_0.member_id, m1_0.name from member m1_0 where m1_0.member_id=42 and m1_0.name='it''s'";
+
+        //When
+        String normalized1 = SqlNormalizer.normalize(sql1);
+        String normalized2 = SqlNormalizer.normalize(sql2);
+
+        //Then
+        assertEquals(normalized1, normalized2, "값만 다른 SQL은 같은 모양이어야 한다.");
+        assertEquals("select m1_0.member_id, m1_0.name from member m1_0 where m1_0.member_id=? and m1_0.name=?", normalized1);
+    }
+
+    @Test
+    public void IN절_파라미터_개수_무시() {
+        //Given
+        String padded4 = "select oi1_0.order_id from order_item oi1_0 where oi1_0.order_id in (?,?,?,?)";
+        String padded8 = "select oi1_0.order_id from order_item oi1_0 where oi1_0.order_id in (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        //Then
+        assertEquals(SqlNormalizer.normalize(padded4), SqlNormalizer.normalize(padded8));
+    }
+}
@@ -0,0 +1,40 @@
+package jpabook.jpashop.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SqlProfileEndpointTest {
+
+    private final SqlProfileProperties properties = new SqlProfileProperties();
+    private final SqlFingerprintProfiler profiler = new SqlFingerprintProfiler(properties);
+    private final SqlProfileEndpoint endpoint = new SqlProfileEndpoint(profiler, properties);
+
+    @Test
+    public void 정렬_기준별_상위() {
+        //Given
+        profiler.record("select * from member", 10_000_000, false); //느린 1번
+        for (int i = 0; i < 3; i++) {
+            profiler.record("select * from item", 1_000_000, false); //빠른 3번
+        }
+
+        //When
+        List<SqlFingerprintStats.Snapshot> byTotal = endpoint.top(1, null);
+        List<SqlFingerprintStats.Snapshot> byCount = endpoint.top(1, "count");
+
+        //Then
+        assertEquals("select * from member", byTotal.get(0).fingerprint());
+        assertEquals("select * from item", byCount.get(0).fingerprint());
+    }
+
+    @Test
+    public void 잘못된_정렬_기준과_limit은_400() {
+        //actuator는 InvalidEndpointRequestException을 400으로 응답
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.top(null, "totl"));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.top(0, null));
+    }
+}
@@ -0,0 +1,61 @@
+package jpabook.jpashop.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FetchJoinPagerTest {
+
+    private record Row(Long id, String value) {
+    }
+
+    private static final Function<Row, Long> ID = Row::id;
+
+    @Test
+    public void id_순서로_정렬() {
+        //Given
+        List<Long> ids = List.of(3L, 1L, 2L);
+        List<Row> results = List.of(new Row(1L, "a"), new Row(2L, "b"), new Row(3L, "c"));
+
+        //When
+        List<Row> ordered = FetchJoinPager.inIdOrder(ids, results, ID);
+
+        //Then
+        assertEquals(ids, ordered.stream().map(Row::id).toList());
+    }
+
+    @Test
+    public void 중복_루트는_첫_번째만() {
+        //Given : distinct 없는 컬렉션 fetch join은 자식 수만큼 루트가 반복됨
+        Row first = new Row(1L, "first");
+        List<Row> results = List.of(first, new Row(1L, "duplicate"), new Row(2L, "b"), new Row(2L, "b"));
+
+        //When
+        List<Row> ordered = FetchJoinPager.inIdOrder(List.of(1L, 2L), results, ID);
+
+        //Then
+        assertEquals(2, ordered.size());
+        assertSame(first, ordered.get(0));
+    }
+
+    @Test
+    public void 사이에_삭제된_행은_빠짐() {
+        //Given : 1단계 이후 2번이 삭제됨
+        List<Row> results = List.of(new Row(3L, "c"), new Row(1L, "a"));
+
+        //When
+        List<Row> ordered = FetchJoinPager.inIdOrder(List.of(1L, 2L, 3L), results, ID);
+
+        //Then
+        assertEquals(List.of(1L, 3L), ordered.stream().map(Row::id).toList());
+    }
+
+    @Test
+    public void 결과가_없으면_빈_목록() {
+        assertEquals(List.of(), FetchJoinPager.inIdOrder(List.of(1L, 2L), List.<Row>of(), ID));
+    }
+}
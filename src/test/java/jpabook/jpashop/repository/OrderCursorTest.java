@@ -0,0 +1,45 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.exception.InvalidPageRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderCursorTest {
+
+    @Test
+    public void 커서_인코딩_디코딩() {
+        //Given
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 42L);
+
+        //When
+        OrderCursor decoded = OrderCursor.decode(cursor.encode());
+
+        //Then
+        assertEquals(cursor.getOrderDate(), decoded.getOrderDate());
+        assertEquals(cursor.getOrderId(), decoded.getOrderId());
+    }
+
+    @Test
+    public void 잘못된_커서는_400() {
+        assertThrows(InvalidPageRequestException.class, () -> OrderCursor.decode("!!!"), "Base64가 아님");
+        assertThrows(InvalidPageRequestException.class, () -> OrderCursor.decode(" "), "빈 토큰");
+        assertThrows(InvalidPageRequestException.class, () -> OrderCursor.decode(token("2024-01-02T03:04:05")), "id 없음");
+        assertThrows(InvalidPageRequestException.class, () -> OrderCursor.decode(token("2024-01-02T03:04:05,abc")), "id가 숫자가 아님");
+        assertThrows(InvalidPageRequestException.class, () -> OrderCursor.decode(token("null,1")), "날짜 형식 아님");
+    }
+
+    @Test
+    public void 주문일시_없는_커서는_만들_수_없음() {
+        assertThrows(NullPointerException.class, () -> new OrderCursor(null, 1L));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class OrderRepositoryTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Test
+    public void 컬렉션_페치조인_페이징() {
+        //Given
+        Member member = createMember();
+        Book book = createBook("시골 JPA", 10000, 10); //이름, 가격, 재고
+        Long first = createOrder(member, book, 1);
+        Long second = createOrder(member, book, 2);
+        Long third = createOrder(member, book, 3);
+        em.flush();
+        em.clear();
+
+        //When
+        List<Order> page = orderRepository.findAllWithItem(0, 2);
+        List<Order> next = orderRepository.findAllWithItem(2, 1);
+
+        //Then
+        assertEquals(List.of(third, second), page.stream().map(Order::getId).toList(), "최근 주문부터 limit개");
+        assertEquals(first, next.get(0).getId(), "다음 페이지는 offset 다음부터");
+        assertTrue(Hibernate.isInitialized(page.get(0).getOrderItems()), "주문상품까지 fetch join");
+        assertEquals(3, page.get(0).getOrderItems().get(0).getCount());
+    }
+
+    @Test
+    public void 컬렉션_페치조인_페이징_범위_검사() {
+        assertThrows(IllegalArgumentException.class, () -> orderRepository.findAllWithItem(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> orderRepository.findAllWithItem(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderRepository.findAllWithItem(0, FetchJoinPager.MAX_PAGE_SIZE + 1));
+    }
+
+    private Long createOrder(Member member, Book book, int count) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, book.getPrice(), count));
+        em.persist(order);
+        return order.getId();
+    }
+
+    private Member createMember() {
+        Member member = new Member();
+        member.setName("회원1");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price, int stockQuantity) {
+        Book book = new Book();
+        book.setName(name);
+        book.setStockQuantity(stockQuantity);
+        book.setPrice(price);
+        em.persist(book);
+        return book;
+    }
+}
@@ -0,0 +1,47 @@
+package jpabook.jpashop.repository.order.query;
+
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderFlatAssemblerTest {
+
+    @Test
+    public void 연속된_행을_주문별로_조립() {
+        //Given
+        List<OrderFlatDto> rows = List.of(
+                flat(3L, "JPA1 BOOK", 1),
+                flat(3L, "JPA2 BOOK", 2),
+                flat(1L, "Spring1 BOOK", 3), //id 역순이어도 들어온 순서 유지
+                flat(1L, "Spring2 BOOK", 4),
+                flat(2L, "Spring3 BOOK", 5));
+
+        //When
+        List<OrderQueryDto> result = OrderFlatAssembler.assemble(rows);
+
+        //Then
+        assertEquals(3, result.size());
+        assertEquals(3L, result.get(0).getOrderId(), "조회 순서가 유지되어야 한다.");
+        assertEquals(1L, result.get(1).getOrderId());
+        assertEquals(2L, result.get(2).getOrderId());
+        assertEquals(2, result.get(0).getOrderItems().size());
+        assertEquals("Spring2 BOOK", result.get(1).getOrderItems().get(1).getItemName());
+        assertEquals(1, result.get(2).getOrderItems().size());
+    }
+
+    @Test
+    public void 빈_결과() {
+        assertTrue(OrderFlatAssembler.assemble(List.of()).isEmpty());
+    }
+
+    private OrderFlatDto flat(Long orderId, String itemName, int count) {
+        return new OrderFlatDto(orderId, "userA", LocalDateTime.now(), OrderStatus.ORDER,
+                new Address("서울", "1", "1111"), itemName, 10000, count);
+    }
+}
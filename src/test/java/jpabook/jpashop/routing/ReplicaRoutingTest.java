@@ -0,0 +1,156 @@
+package jpabook.jpashop.routing;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jpabook.jpashop.change.ConditionalGet;
+import jpabook.jpashop.change.TrackedResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * H2 메모리 DB 2개(주 DB, 복제본)에 각각 표식 테이블을 만들고, 어느 DB에서 읽었는지 확인
+ * 복제본에는 엔티티 스키마가 없으므로 시작 시 읽기 전용 조회를 하는 이름 필터는 끔
+ * 복제본 표식은 복제 지연으로 아직 반영되지 않은 이전 데이터 역할
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "jpashop.replica.enabled=true",
+        "jpashop.replica.replicas[0].name=test",
+        "jpashop.replica.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "jpashop.member-filter.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mark(PRIMARY_URL, "primary");
+        mark(REPLICA_URL, "replica");
+    }
+
+    @Test
+    public void 읽기_전용_트랜잭션은_복제본() {
+        assertEquals("replica", readIn(true));
+    }
+
+    @Test
+    public void 쓰기_트랜잭션은_주_DB() {
+        assertEquals("primary", readIn(false));
+    }
+
+    @Test
+    public void 읽기_후_쓰기_트랜잭션은_다시_주_DB() {
+        assertEquals("replica", readIn(true));
+        assertEquals("primary", readIn(false));
+        assertEquals("replica", readIn(true));
+    }
+
+    @Test
+    public void 트랜잭션_밖은_주_DB() {
+        assertEquals("primary", em.createNativeQuery("select name from route_marker").getSingleResult());
+    }
+
+    @Test
+    public void 조건부_GET은_읽기_전용이어도_주_DB() throws Exception {
+        //When : 새 ETag와 함께 나가는 응답
+        MvcResult result = mockMvc.perform(get("/test/route-marker/conditional"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("primary"))
+                .andReturn();
+
+        //Then : 304로 핸들러를 건너뛴 뒤에도 다른 요청은 다시 복제본
+        mockMvc.perform(get("/test/route-marker/conditional")
+                        .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/test/route-marker")).andExpect(content().string("replica"));
+    }
+
+    @Test
+    public void 회원_목록_조건부_GET은_주_DB() throws Exception {
+        //복제본에는 member 테이블이 없음 -> 복제본으로 가면 실패
+        mockMvc.perform(get("/api/v2/members")).andExpect(status().isOk());
+    }
+
+    private String readIn(boolean readOnly) {
+        return readIn(transactionManager, em, readOnly);
+    }
+
+    private static String readIn(PlatformTransactionManager transactionManager, EntityManager em, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                (String) em.createNativeQuery("select name from route_marker").getSingleResult());
+    }
+
+    //스프링 DataSource를 거치지 않고 각 DB에 직접 표식
+    private static void mark(String url, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.execute("create table if not exists route_marker (name varchar(20))");
+        jdbcTemplate.update("delete from route_marker");
+        jdbcTemplate.update("insert into route_marker (name) values (?)", name);
+    }
+
+    @TestConfiguration
+    static class RouteMarkerConfig {
+
+        @Bean
+        RouteMarkerController routeMarkerController(PlatformTransactionManager transactionManager, EntityManager em) {
+            return new RouteMarkerController(transactionManager, em);
+        }
+    }
+
+    //둘 다 읽기 전용 트랜잭션으로 표식 조회
+    @RestController
+    static class RouteMarkerController {
+
+        private final PlatformTransactionManager transactionManager;
+        private final EntityManager em;
+
+        RouteMarkerController(PlatformTransactionManager transactionManager, EntityManager em) {
+            this.transactionManager = transactionManager;
+            this.em = em;
+        }
+
+        @GetMapping("/test/route-marker/conditional")
+        @ConditionalGet(TrackedResource.MEMBERS)
+        public String conditional() {
+            return readIn(transactionManager, em, true);
+        }
+
+        @GetMapping("/test/route-marker")
+        public String plain() {
+            return readIn(transactionManager, em, true);
+        }
+    }
+}
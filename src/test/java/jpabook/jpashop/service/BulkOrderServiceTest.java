@@ -0,0 +1,212 @@
+package jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.InvalidOrderRequestException;
+import jpabook.jpashop.inventory.InventoryLedger;
+import jpabook.jpashop.repository.ItemRepository;
+import jpabook.jpashop.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * 대량 주문/취소는 청크마다 자체 트랜잭션으로 커밋하므로 @Transactional 없이 실제로 커밋
+ * 청크 크기(500)를 넘는 요청으로 청크 경계까지 확인
+ * OrderRepository는 스파이(테스트마다 스텁 초기화) -> 청크 실패 주입용
+ */
+@SpringBootTest
+public class BulkOrderServiceTest {
+
+    private static final int ORDERS = 501; //청크 2개
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    BulkOrderService bulkOrderService;
+    @Autowired
+    ItemRepository itemRepository;
+    @MockitoSpyBean
+    OrderRepository orderRepository;
+    @Autowired
+    InventoryLedger inventoryLedger;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void 청크_대량주문() {
+        //Given
+        Long memberId = createMember();
+        Long itemId = createBook(ORDERS * 2);
+
+        //When
+        BulkOrderResult result = bulkOrderService.order(commands(memberId, itemId, ORDERS));
+
+        //Then
+        assertEquals(ORDERS, result.getSucceeded());
+        assertEquals(0, result.getFailures().size());
+        result.getOrderIds().forEach(orderId -> assertNotNull(orderId, "요청 위치마다 주문 id"));
+        assertEquals(ORDERS, stockOf(itemId), "주문 수량만큼 재고 차감");
+    }
+
+    @Test
+    public void 주문별_실패_격리() {
+        //Given
+        Long memberId = createMember();
+        Long itemId = createBook(3);
+        List<BulkOrderCommand> commands = List.of(
+                command(memberId, itemId, 2),
+                command(-1L, itemId, 1),        //없는 회원
+                command(memberId, itemId, 5),   //재고 부족
+                command(memberId, -1L, 1),      //없는 상품
+                command(memberId, itemId, 1));
+
+        //When
+        BulkOrderResult result = bulkOrderService.order(commands);
+
+        //Then : 실패한 주문만 빠지고 나머지는 저장
+        assertEquals(2, result.getSucceeded());
+        assertEquals(List.of(1, 2, 3), result.getFailures().stream().map(BulkOrderResult.Failure::getIndex).toList());
+        assertNotNull(result.getOrderIds().get(0));
+        assertNull(result.getOrderIds().get(1));
+        assertNotNull(result.getOrderIds().get(4));
+        assertEquals(0, stockOf(itemId), "성공한 주문 수량만 차감");
+    }
+
+    @Test
+    public void 롤백되면_원장_예약_반환() {
+        //Given : 인메모리 원장이 관리하는 상품
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+        inventoryLedger.load(itemId);
+
+        //When : 청크 트랜잭션이 바깥 트랜잭션과 함께 롤백
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bulkOrderService.order(commands(memberId, itemId, 4));
+            status.setRollbackOnly();
+        });
+
+        //Then
+        assertEquals(10, inventoryLedger.available(itemId), "롤백된 예약은 원장에 돌아와야 한다.");
+        assertEquals(10, stockOf(itemId));
+    }
+
+    @Test
+    public void 청크_대량취소() {
+        //Given
+        Long memberId = createMember();
+        Long itemId = createBook(ORDERS);
+        List<Long> orderIds = bulkOrderService.order(commands(memberId, itemId, ORDERS)).getOrderIds();
+
+        //When
+        BulkCancelResult result = bulkOrderService.cancel(orderIds);
+        BulkCancelResult again = bulkOrderService.cancel(orderIds);
+
+        //Then
+        assertEquals(ORDERS, result.getCanceled());
+        assertEquals(0, result.getFailed());
+        assertEquals(ORDERS, stockOf(itemId), "취소된 주문 수량만큼 재고 복구");
+        assertEquals(OrderStatus.CANCEL, statusOf(orderIds.get(ORDERS - 1)));
+        assertEquals(ORDERS, again.getSkipped(), "이미 취소된 주문은 건너뜀");
+        assertEquals(ORDERS, stockOf(itemId), "두 번 취소해도 재고는 한 번만 복구");
+    }
+
+    @Test
+    public void 대량취소_청크_실패는_실패로_보고() {
+        //Given
+        Long memberId = createMember();
+        Long itemId = createBook(2);
+        List<Long> orderIds = bulkOrderService.order(commands(memberId, itemId, 2)).getOrderIds();
+        doThrow(new IllegalStateException("cancel failed")).when(orderRepository).cancelAll(anyList());
+
+        //When
+        BulkCancelResult result = bulkOrderService.cancel(orderIds);
+
+        //Then : 청크 롤백 -> 재고 복구도 롤백
+        assertEquals(2, result.getFailed());
+        assertEquals(0, result.getSkipped());
+        assertEquals(orderIds, result.getFailedOrderIds());
+        assertEquals(0, stockOf(itemId));
+        assertEquals(OrderStatus.ORDER, statusOf(orderIds.get(0)));
+    }
+
+    @Test
+    public void 조건_없는_검색_취소는_거절() {
+        //Given
+        Long memberId = createMember();
+        Long itemId = createBook(1);
+        List<Long> orderIds = bulkOrderService.order(commands(memberId, itemId, 1)).getOrderIds();
+        OrderSearch search = new OrderSearch();
+        search.setMemberName(" "); //빈 문자열도 조건 아님
+
+        //When
+        assertThrows(InvalidOrderRequestException.class, () -> bulkOrderService.cancel(search));
+
+        //Then
+        assertEquals(OrderStatus.ORDER, statusOf(orderIds.get(0)));
+        assertEquals(0, stockOf(itemId));
+    }
+
+    private static List<BulkOrderCommand> commands(Long memberId, Long itemId, int size) {
+        List<BulkOrderCommand> commands = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            commands.add(command(memberId, itemId, 1));
+        }
+        return commands;
+    }
+
+    private static BulkOrderCommand command(Long memberId, Long itemId, int count) {
+        return new BulkOrderCommand(memberId, List.of(new BulkOrderCommand.Line(itemId, count)));
+    }
+
+    private int stockOf(Long itemId) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> itemRepository.findOne(itemId).getStockQuantity());
+    }
+
+    private OrderStatus statusOf(Long orderId) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> orderRepository.findOne(orderId).getStatus());
+    }
+
+    private Long createMember() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Member member = new Member();
+            member.setName("회원-" + UUID.randomUUID());
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    private Long createBook(int stockQuantity) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Book book = new Book();
+            book.setName("대량주문 상품");
+            book.setPrice(10000);
+            book.setStockQuantity(stockQuantity);
+            em.persist(book);
+            return book.getId();
+        });
+    }
+}
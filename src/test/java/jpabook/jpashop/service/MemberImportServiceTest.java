@@ -0,0 +1,54 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 청크마다 자체 트랜잭션으로 커밋하므로 @Transactional 없이 실제로 커밋
+ */
+@SpringBootTest
+public class MemberImportServiceTest {
+
+    @Autowired
+    MemberImportService memberImportService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberNameFilter memberNameFilter;
+
+    @Test
+    public void 필터에_없는_기존_이름은_재시도에서_거절() {
+        //Given : 다른 서버에서 가입한 것처럼 필터를 거치지 않고 저장
+        String existing = "import-" + UUID.randomUUID();
+        String fresh = "import-" + UUID.randomUUID();
+        Member member = new Member();
+        member.setName(existing);
+        memberRepository.saveAndFlush(member);
+        assertFalse(memberNameFilter.mightContain(existing), "필터는 이 이름을 모름");
+
+        //When : 첫 시도는 필터만 믿고 insert -> 유니크 제약 위반, 재시도는 모든 이름 조회
+        MemberImportResult result = memberImportService.importMembers(
+                List.of(row(1, fresh), row(2, existing)).iterator(), chunk -> { });
+
+        //Then
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(1, memberRepository.findByName(fresh).size());
+    }
+
+    private static MemberImportRow row(long line, String name) {
+        MemberImportRow row = new MemberImportRow();
+        row.setLine(line);
+        row.setName(name);
+        return row;
+    }
+}
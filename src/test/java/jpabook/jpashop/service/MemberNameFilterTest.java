@@ -0,0 +1,131 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 블룸 필터 단위 테스트(DB 대신 MemberRepository 목)
+ * streamAllNames는 호출마다 현재 names로 새 스트림 -> 다시 만들 때 그 사이 가입한 이름까지 읽음
+ */
+public class MemberNameFilterTest {
+
+    private final List<String> names = new ArrayList<>();
+    private final MemberNameFilterProperties properties = new MemberNameFilterProperties();
+    private final MemberRepository memberRepository = mock(MemberRepository.class);
+    private MemberNameFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        when(memberRepository.streamAllNames()).thenAnswer(invocation -> new ArrayList<>(names).stream());
+        when(memberRepository.count()).thenAnswer(invocation -> (long) names.size());
+        filter = new MemberNameFilter(properties, memberRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void 적재_전에는_항상_조회() {
+        assertTrue(filter.mightContain("회원1"));
+    }
+
+    @Test
+    public void 있는_이름은_모두_있을_수도_있음() {
+        //Given
+        properties.setExpectedMembers(2_000);
+        for (int i = 0; i < 2_000; i++) {
+            names.add("member" + i);
+        }
+
+        //When
+        filter.load();
+        for (int i = 2_000; i < 4_000; i++) {
+            filter.add("member" + i); //용량을 넘겨 추가해도 빠지는 이름 없음
+        }
+
+        //Then
+        for (int i = 0; i < 4_000; i++) {
+            assertTrue(filter.mightContain("member" + i), "가입한 이름은 절대 없다고 하면 안 된다.");
+        }
+    }
+
+    @Test
+    public void 없는_이름은_대부분_없음() {
+        //Given
+        properties.setExpectedMembers(2_000);
+        for (int i = 0; i < 2_000; i++) {
+            names.add("member" + i);
+        }
+        filter.load();
+
+        //When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //Then
+        assertTrue(falsePositives < 300, "오답 비율 1% 목표, 3% 미만이어야 한다 : " + falsePositives);
+    }
+
+    @Test
+    public void 용량을_넘으면_2배로_다시_만듦() {
+        //Given
+        properties.setExpectedMembers(10);
+        filter.load();
+        assertEquals(10, filter.capacity());
+
+        //When
+        for (int i = 0; i < 11; i++) {
+            names.add("member" + i); //가입(DB)
+            filter.add("member" + i);
+        }
+        filter.rebuildIfSaturated();
+
+        //Then
+        assertEquals(20, filter.capacity());
+        verify(memberRepository, times(2)).streamAllNames();
+        for (int i = 0; i < 11; i++) {
+            assertTrue(filter.mightContain("member" + i), "다시 만든 필터도 DB의 모든 이름을 포함");
+        }
+    }
+
+    @Test
+    public void 용량_안이면_그대로() {
+        //Given
+        properties.setExpectedMembers(10);
+        filter.load();
+
+        //When
+        filter.add("member0");
+        filter.rebuildIfSaturated();
+
+        //Then
+        assertEquals(10, filter.capacity());
+        verify(memberRepository, times(1)).streamAllNames();
+    }
+
+    @Test
+    public void 꺼져_있으면_적재하지_않음() {
+        //Given
+        properties.setEnabled(false);
+
+        //When
+        filter.load();
+
+        //Then
+        assertEquals(0, filter.capacity());
+        assertTrue(filter.mightContain("회원1"));
+    }
+}